@@ -23,6 +23,12 @@ public class KafkaProducerConfig {
     @Value("${spring.kafka.bootstrap-servers:localhost:29092}")
     private String bootstrapServers;
 
+    @Value("${spring.kafka.producer.batch-size:65536}")
+    private int batchSize;
+
+    @Value("${spring.kafka.producer.properties.linger.ms:5}")
+    private int lingerMs;
+
     @Bean
     public ProducerFactory<String, DomainEvent> producerFactory() {
         Map<String, Object> configProps = new HashMap<>();
@@ -32,6 +38,8 @@ public class KafkaProducerConfig {
         configProps.put(ProducerConfig.ACKS_CONFIG, "all");
         configProps.put(ProducerConfig.RETRIES_CONFIG, 3);
         configProps.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        configProps.put(ProducerConfig.BATCH_SIZE_CONFIG, batchSize);
+        configProps.put(ProducerConfig.LINGER_MS_CONFIG, lingerMs);
         configProps.put(JsonSerializer.ADD_TYPE_INFO_HEADERS, true);
 
         return new DefaultKafkaProducerFactory<>(configProps);
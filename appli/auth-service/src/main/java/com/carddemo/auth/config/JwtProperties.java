@@ -1,5 +1,6 @@
 package com.carddemo.auth.config;
 
+import com.carddemo.shared.security.TokenBlacklistProperties;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
@@ -41,4 +42,9 @@ public class JwtProperties {
      * Token audience
      */
     private String audience = "carddemo-app";
+
+    /**
+     * Local near-cache of the Redis token blacklist
+     */
+    private TokenBlacklistProperties blacklist = new TokenBlacklistProperties();
 }
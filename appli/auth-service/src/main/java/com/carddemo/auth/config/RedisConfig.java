@@ -0,0 +1,36 @@
+package com.carddemo.auth.config;
+
+import com.carddemo.auth.service.UserCache;
+import com.carddemo.shared.security.TokenBlacklistCache;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+/**
+ * Redis Configuration
+ *
+ * Token blacklist near-cache, and the pub/sub listener that keeps it and the
+ * user cache in step with revocations and users writes from every auth-service node.
+ */
+@Configuration
+public class RedisConfig {
+
+    @Bean
+    public TokenBlacklistCache tokenBlacklistCache(StringRedisTemplate redisTemplate, JwtProperties jwtProperties) {
+        return new TokenBlacklistCache(redisTemplate, jwtProperties.getBlacklist());
+    }
+
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                       TokenBlacklistCache blacklistCache,
+                                                                       UserCache userCache) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(blacklistCache, new ChannelTopic(TokenBlacklistCache.EVENTS_CHANNEL));
+        container.addMessageListener(userCache, new ChannelTopic(UserCache.INVALIDATE_CHANNEL));
+        return container;
+    }
+}
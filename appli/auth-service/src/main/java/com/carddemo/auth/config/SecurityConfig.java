@@ -1,5 +1,6 @@
 package com.carddemo.auth.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -88,10 +89,11 @@ public class SecurityConfig {
      * BCrypt password encoder
      *
      * Used for password verification during login.
-     * Strength 10 is the default (2^10 = 1024 iterations).
+     * Strength 10 is the default (2^10 = 1024 iterations). Raising it upgrades
+     * existing hashes on their next successful login.
      */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${auth.password-hashing.bcrypt-strength:10}") int strength) {
+        return new BCryptPasswordEncoder(strength);
     }
 }
@@ -6,6 +6,7 @@ import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -15,6 +16,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 /**
  * Authentication Controller
  *
@@ -143,6 +146,26 @@ public class AuthController {
         ));
     }
 
+    /**
+     * Batch token validation endpoint (gateways, session audits)
+     *
+     * @param request Tokens to validate
+     * @return One result per token, in request order
+     */
+    @PostMapping("/validate/batch")
+    @Operation(summary = "Validate tokens in batch",
+            description = "Check many JWT tokens in one call: signatures locally, blacklist and refresh sessions " +
+                    "with a single Redis round trip. Results are returned in request order.")
+    public ResponseEntity<BatchTokenValidationResponse> validateTokens(
+            @Valid @RequestBody BatchTokenValidationRequest request) {
+        log.debug("Batch token validation request received: {} tokens", request.getTokens().size());
+
+        List<AuthService.BatchTokenValidationResult> results = authService.validateTokens(request.getTokens());
+
+        int validCount = (int) results.stream().filter(AuthService.BatchTokenValidationResult::valid).count();
+        return ResponseEntity.ok(new BatchTokenValidationResponse(results, validCount));
+    }
+
     /**
      * Refresh token endpoint
      *
@@ -253,3 +276,26 @@ class RefreshTokenRequest {
 class RefreshTokenResponse {
     private String accessToken;
 }
+
+/**
+ * Batch token validation request
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+class BatchTokenValidationRequest {
+    @NotEmpty(message = "At least one token is required")
+    @Size(max = 500, message = "At most 500 tokens per request")
+    private List<String> tokens;
+}
+
+/**
+ * Batch token validation response
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+class BatchTokenValidationResponse {
+    private List<AuthService.BatchTokenValidationResult> results;
+    private int validCount;
+}
@@ -147,4 +147,15 @@ public class AuthException extends RuntimeException {
                 "TOKEN_BLACKLISTED"
         );
     }
+
+    /**
+     * Login temporarily shed (password hashing pool saturated)
+     */
+    public static AuthException serviceBusy() {
+        return new AuthException(
+                "Authentication service is busy. Please try again shortly.",
+                HttpStatus.SERVICE_UNAVAILABLE,
+                "SERVICE_BUSY"
+        );
+    }
 }
@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.Optional;
@@ -48,8 +49,9 @@ public interface UserRepository extends JpaRepository<User, String> {
     /**
      * Update last login timestamp
      */
+    @Transactional
     @Modifying
-    @Query("UPDATE User u SET u.lastLogin = :timestamp, u.loginAttempts = 0, u.lockedUntil = null WHERE u.userId = :userId")
+    @Query("UPDATE User u SET u.lastLogin = :timestamp WHERE u.userId = :userId")
     int updateLastLogin(@Param("userId") String userId, @Param("timestamp") LocalDateTime timestamp);
 
     /**
@@ -62,13 +64,16 @@ public interface UserRepository extends JpaRepository<User, String> {
     /**
      * Lock user account
      */
+    @Transactional
     @Modifying
-    @Query("UPDATE User u SET u.lockedUntil = :lockedUntil WHERE u.userId = :userId")
-    int lockAccount(@Param("userId") String userId, @Param("lockedUntil") LocalDateTime lockedUntil);
+    @Query("UPDATE User u SET u.lockedUntil = :lockedUntil, u.loginAttempts = :attempts WHERE u.userId = :userId")
+    int lockAccount(@Param("userId") String userId, @Param("lockedUntil") LocalDateTime lockedUntil,
+                    @Param("attempts") int attempts);
 
     /**
      * Unlock user account
      */
+    @Transactional
     @Modifying
     @Query("UPDATE User u SET u.lockedUntil = null, u.loginAttempts = 0 WHERE u.userId = :userId")
     int unlockAccount(@Param("userId") String userId);
@@ -3,14 +3,16 @@ package com.carddemo.auth.service;
 import com.carddemo.auth.entity.User;
 import com.carddemo.auth.exception.AuthException;
 import com.carddemo.auth.repository.UserRepository;
+import io.jsonwebtoken.Claims;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.dao.DataAccessException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
@@ -43,7 +45,9 @@ public class AuthService {
 
     private final UserRepository userRepository;
     private final JwtService jwtService;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
+    private final LoginAttemptService loginAttemptService;
+    private final UserCache userCache;
 
     @Value("${auth.max-login-attempts:5}")
     private int maxLoginAttempts;
@@ -59,13 +63,13 @@ public class AuthService {
      * @return AuthResult with tokens and user info
      * @throws AuthException if authentication fails
      */
-    @Transactional
+    // Not @Transactional: the BCrypt check must not hold a JDBC connection
     public AuthResult authenticate(String userId, String password) {
         log.info("Authentication attempt for user: {}", userId);
 
         // Step 1: Find user in database
         // CICS equivalent: EXEC CICS READ FILE('USRSEC') INTO(SEC-USER-DATA) RIDFLD(WS-USER-ID)
-        User user = userRepository.findByUserId(userId.toUpperCase())
+        User user = userCache.findByUserId(userId.toUpperCase())
                 .orElseThrow(() -> {
                     log.warn("User not found: {}", userId);
                     return AuthException.invalidCredentials(); // Don't reveal user existence
@@ -83,16 +87,31 @@ public class AuthService {
             throw AuthException.accountLocked();
         }
 
-        // Step 4: Verify password
+        // Step 4: Verify password (on the hashing pool, outside any DB transaction)
         // CICS equivalent: IF SEC-USR-PWD = WS-PASSWORD
-        if (!passwordEncoder.matches(password, user.getPasswordHash())) {
+        if (!passwordHashingService.matches(password, user.getPasswordHash())) {
             handleFailedLogin(user);
             throw AuthException.invalidCredentials();
         }
 
-        // Step 5: Successful authentication - reset attempts and update last login
+        // Step 5: Successful authentication - reset attempts, update last login
+        // and upgrade the hash if the configured work factor has changed
+        // (the lock columns are only written when the row still holds attempts or an expired lock)
+        loginAttemptService.clear(user.getUserId());
+        Optional<String> upgradedHash = passwordHashingService.rehashIfNeeded(password, user.getPasswordHash());
+        boolean lockStateChanged = (user.getLoginAttempts() != null && user.getLoginAttempts() > 0)
+                || user.getLockedUntil() != null;
         user.resetLoginAttempts();
-        userRepository.save(user);
+        if (upgradedHash.isPresent()) {
+            user.setPasswordHash(upgradedHash.get());
+            userRepository.save(user);
+        } else {
+            if (lockStateChanged) {
+                userRepository.unlockAccount(user.getUserId());
+            }
+            userRepository.updateLastLogin(user.getUserId(), user.getLastLogin());
+        }
+        userCache.refresh(user);
 
         // Step 6: Generate session ID and tokens
         String sessionId = UUID.randomUUID().toString();
@@ -106,17 +125,35 @@ public class AuthService {
 
     /**
      * Handle failed login attempt
+     *
+     * Counted in Redis; the users row is only written when the account locks.
      */
     private void handleFailedLogin(User user) {
-        user.incrementLoginAttempts(maxLoginAttempts, lockDurationSeconds);
-        userRepository.save(user);
+        int attempts;
+        try {
+            attempts = loginAttemptService.recordFailure(user.getUserId());
+        } catch (DataAccessException e) {
+            // Redis unavailable: fall back to counting on the users row
+            log.warn("Login attempt counter unavailable, using database: {}", e.getMessage());
+            user.incrementLoginAttempts(maxLoginAttempts, lockDurationSeconds);
+            userRepository.save(user);
+            userCache.evict(user.getUserId());
+            attempts = user.getLoginAttempts();
+        }
+
+        if (attempts >= maxLoginAttempts && !user.isLocked()) {
+            user.setLockedUntil(LocalDateTime.now().plusSeconds(lockDurationSeconds));
+            userRepository.lockAccount(user.getUserId(), user.getLockedUntil(), attempts);
+            userCache.evict(user.getUserId());
+            loginAttemptService.clear(user.getUserId());
+        }
 
         if (user.isLocked()) {
             log.warn("Account locked after {} failed attempts: {}",
                     maxLoginAttempts, user.getUserId());
         } else {
             log.warn("Failed login attempt {} of {} for user: {}",
-                    user.getLoginAttempts(), maxLoginAttempts, user.getUserId());
+                    attempts, maxLoginAttempts, user.getUserId());
         }
     }
 
@@ -127,21 +164,19 @@ public class AuthService {
      * @return New access token
      * @throws AuthException if refresh token is invalid
      */
-    @Transactional(readOnly = true)
+    // Not @Transactional: served from the user cache, no connection needed on a hit
     public RefreshResult refreshToken(String refreshToken) {
         log.debug("Token refresh attempt");
 
-        // Validate refresh token
-        if (!jwtService.validateRefreshToken(refreshToken)) {
-            throw AuthException.refreshTokenInvalid();
-        }
+        // Validate refresh token and extract user info from it
+        Claims claims = jwtService.verifyRefreshToken(refreshToken)
+                .orElseThrow(AuthException::refreshTokenInvalid);
 
-        // Extract user info from refresh token
-        String userId = jwtService.extractUserId(refreshToken);
-        String sessionId = jwtService.extractSessionId(refreshToken);
+        String userId = claims.getSubject();
+        String sessionId = claims.get("sessionId", String.class);
 
         // Verify user still exists and is active
-        User user = userRepository.findByUserIdAndIsActiveTrue(userId)
+        User user = userCache.findActiveByUserId(userId)
                 .orElseThrow(AuthException::accountDisabled);
 
         // Generate new access token (same session)
@@ -161,15 +196,17 @@ public class AuthService {
         String token = jwtService.extractTokenFromHeader(accessToken);
 
         if (token != null) {
-            String userId = null;
+            Claims claims;
             try {
-                userId = jwtService.extractUserId(token);
+                claims = jwtService.extractAllClaims(token);
             } catch (Exception e) {
-                // Token might be invalid, still try to blacklist
+                // Invalid or expired token: nothing left to blacklist
+                log.debug("Logout with invalid token: {}", e.getMessage());
+                return;
             }
 
-            jwtService.blacklistToken(token);
-            log.info("User logged out: {}", userId);
+            jwtService.blacklistToken(claims);
+            log.info("User logged out: {}", claims.getSubject());
         }
     }
 
@@ -182,19 +219,34 @@ public class AuthService {
     public TokenValidationResult validateToken(String accessToken) {
         String token = jwtService.extractTokenFromHeader(accessToken);
 
-        if (token == null || !jwtService.validateToken(token)) {
-            return new TokenValidationResult(false, null, null, null);
-        }
-
-        try {
-            String userId = jwtService.extractUserId(token);
-            String userType = jwtService.extractUserType(token);
-            String sessionId = jwtService.extractSessionId(token);
+        return jwtService.verifyToken(token)
+                .map(claims -> new TokenValidationResult(true,
+                        claims.getSubject(),
+                        claims.get("userType", String.class),
+                        claims.get("sessionId", String.class)))
+                .orElseGet(() -> new TokenValidationResult(false, null, null, null));
+    }
 
-            return new TokenValidationResult(true, userId, userType, sessionId);
-        } catch (Exception e) {
-            return new TokenValidationResult(false, null, null, null);
-        }
+    /**
+     * Validate many tokens at once (gateway fan-out, session audits)
+     *
+     * @param tokens JWT tokens, with or without the "Bearer " prefix
+     * @return one result per token, in the same order
+     */
+    public List<BatchTokenValidationResult> validateTokens(List<String> tokens) {
+        List<String> rawTokens = tokens.stream()
+                .map(jwtService::extractTokenFromHeader)
+                .toList();
+
+        return jwtService.verifyTokens(rawTokens).stream()
+                .map(check -> check.valid()
+                        ? new BatchTokenValidationResult(true, check.status().name(),
+                                check.claims().getSubject(),
+                                check.claims().get("userType", String.class),
+                                check.claims().get("sessionId", String.class),
+                                check.sessionActive())
+                        : new BatchTokenValidationResult(false, check.status().name(), null, null, null, false))
+                .toList();
     }
 
     // ============================================================================
@@ -225,4 +277,16 @@ public class AuthService {
             String userType,
             String sessionId
     ) {}
+
+    /**
+     * Batch token validation result
+     */
+    public record BatchTokenValidationResult(
+            boolean valid,
+            String status,
+            String userId,
+            String userType,
+            String sessionId,
+            boolean sessionActive
+    ) {}
 }
@@ -2,9 +2,9 @@ package com.carddemo.auth.service;
 
 import com.carddemo.auth.config.JwtProperties;
 import com.carddemo.auth.entity.User;
+import com.carddemo.shared.security.TokenBlacklistCache;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.stereotype.Service;
@@ -12,9 +12,13 @@ import org.springframework.stereotype.Service;
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
@@ -23,19 +27,36 @@ import java.util.UUID;
  * Handles JWT token generation, validation, and blacklisting.
  * Uses Redis for token blacklist (logout invalidation).
  *
+ * The signing key and parser are built once; callers should verify a token
+ * with verifyToken() and read everything they need from the returned claims
+ * rather than re-parsing it per field.
+ *
  * @author CardDemo Transformation Team
  */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class JwtService {
 
     private final JwtProperties jwtProperties;
     private final StringRedisTemplate redisTemplate;
+    private final TokenBlacklistCache blacklistCache;
+    private final SecretKey signingKey;
+    private final JwtParser jwtParser;
 
-    private static final String BLACKLIST_PREFIX = "jwt:blacklist:";
+    private static final String BLACKLIST_PREFIX = TokenBlacklistCache.BLACKLIST_PREFIX;
     private static final String REFRESH_PREFIX = "jwt:refresh:";
 
+    public JwtService(JwtProperties jwtProperties, StringRedisTemplate redisTemplate,
+                      TokenBlacklistCache blacklistCache) {
+        this.jwtProperties = jwtProperties;
+        this.redisTemplate = redisTemplate;
+        this.blacklistCache = blacklistCache;
+        this.signingKey = Keys.hmacShaKeyFor(jwtProperties.getSecret().getBytes(StandardCharsets.UTF_8));
+        this.jwtParser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+    }
+
     /**
      * Generate access token for user
      *
@@ -93,70 +114,155 @@ public class JwtService {
                 .issuedAt(now)
                 .expiration(expiryDate)
                 .id(UUID.randomUUID().toString())
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
 
     /**
-     * Validate access token
+     * Verify access token in a single pass: signature, expiry, then blacklist
      *
      * @param token JWT token
-     * @return true if valid
+     * @return verified claims, or empty if the token is invalid, expired or blacklisted
      */
-    public boolean validateToken(String token) {
+    public Optional<Claims> verifyToken(String token) {
+        if (token == null || token.isBlank()) {
+            return Optional.empty();
+        }
         try {
-            log.info("Validating token: {}...", token.substring(0, Math.min(50, token.length())));
+            Claims claims = jwtParser.parseSignedClaims(token).getPayload();
 
-            // Check if token is blacklisted
-            String jti = extractJti(token);
+            String jti = claims.getId();
             if (jti != null && isBlacklisted(jti)) {
                 log.warn("Token is blacklisted: {}", jti);
-                return false;
+                return Optional.empty();
             }
 
-            // Parse and validate token
-            Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token);
-
-            log.info("Token is valid");
-            return true;
+            return Optional.of(claims);
         } catch (ExpiredJwtException e) {
-            log.warn("Token expired: {}", e.getMessage());
-            return false;
-        } catch (JwtException e) {
-            log.warn("Invalid token: {}", e.getMessage());
-            return false;
+            log.debug("Token expired: {}", e.getMessage());
+            return Optional.empty();
+        } catch (JwtException | IllegalArgumentException e) {
+            log.debug("Invalid token: {}", e.getMessage());
+            return Optional.empty();
         }
     }
 
     /**
-     * Validate refresh token
+     * Validate access token
+     *
+     * @param token JWT token
+     * @return true if valid
+     */
+    public boolean validateToken(String token) {
+        return verifyToken(token).isPresent();
+    }
+
+    /**
+     * Verify many tokens (access or refresh) with a single Redis round trip
+     *
+     * Signatures and expiry are checked locally; the blacklist entry and the
+     * refresh session of every parsed token are then read with one MGET.
+     * Access tokens are valid unless blacklisted (sessionActive tells whether
+     * their refresh session still exists); refresh tokens are valid only if
+     * they still match the stored session token.
+     *
+     * @param tokens JWT tokens
+     * @return one result per token, in the same order
+     */
+    public List<TokenCheck> verifyTokens(List<String> tokens) {
+        int count = tokens.size();
+        Claims[] parsed = new Claims[count];
+        TokenCheck[] results = new TokenCheck[count];
+        int[] blacklistIndex = new int[count];
+        int[] sessionIndex = new int[count];
+        List<String> keys = new ArrayList<>(count * 2);
+
+        for (int i = 0; i < count; i++) {
+            blacklistIndex[i] = -1;
+            sessionIndex[i] = -1;
+            String token = tokens.get(i);
+            if (token == null || token.isBlank()) {
+                results[i] = TokenCheck.rejected(TokenStatus.INVALID);
+                continue;
+            }
+            try {
+                parsed[i] = jwtParser.parseSignedClaims(token).getPayload();
+            } catch (ExpiredJwtException e) {
+                results[i] = TokenCheck.rejected(TokenStatus.EXPIRED);
+                continue;
+            } catch (JwtException | IllegalArgumentException e) {
+                results[i] = TokenCheck.rejected(TokenStatus.INVALID);
+                continue;
+            }
+            if (parsed[i].getId() != null) {
+                blacklistIndex[i] = keys.size();
+                keys.add(BLACKLIST_PREFIX + parsed[i].getId());
+            }
+            String sessionId = parsed[i].get("sessionId", String.class);
+            if (sessionId != null) {
+                sessionIndex[i] = keys.size();
+                keys.add(REFRESH_PREFIX + sessionId);
+            }
+        }
+
+        List<String> values = keys.isEmpty() ? List.of() : redisTemplate.opsForValue().multiGet(keys);
+
+        for (int i = 0; i < count; i++) {
+            Claims claims = parsed[i];
+            if (claims == null) {
+                continue;
+            }
+            String storedRefreshToken = sessionIndex[i] >= 0 ? values.get(sessionIndex[i]) : null;
+            if (blacklistIndex[i] >= 0 && values.get(blacklistIndex[i]) != null) {
+                results[i] = TokenCheck.rejected(TokenStatus.REVOKED);
+            } else if ("refresh".equals(claims.get("type", String.class))) {
+                results[i] = tokens.get(i).equals(storedRefreshToken)
+                        ? new TokenCheck(TokenStatus.VALID, claims, true)
+                        : TokenCheck.rejected(TokenStatus.SESSION_ENDED);
+            } else {
+                results[i] = new TokenCheck(TokenStatus.VALID, claims, storedRefreshToken != null);
+            }
+        }
+
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Verify refresh token: signature, expiry and match with the token stored in Redis
      *
      * @param refreshToken Refresh token
-     * @return true if valid and stored in Redis
+     * @return verified claims, or empty if invalid or no longer stored
      */
-    public boolean validateRefreshToken(String refreshToken) {
+    public Optional<Claims> verifyRefreshToken(String refreshToken) {
         try {
             Claims claims = extractAllClaims(refreshToken);
             String sessionId = claims.get("sessionId", String.class);
 
             if (sessionId == null) {
-                return false;
+                return Optional.empty();
             }
 
             // Check if refresh token matches stored token
             String key = REFRESH_PREFIX + sessionId;
             String storedToken = redisTemplate.opsForValue().get(key);
 
-            return refreshToken.equals(storedToken);
-        } catch (JwtException e) {
+            return refreshToken.equals(storedToken) ? Optional.of(claims) : Optional.empty();
+        } catch (JwtException | IllegalArgumentException e) {
             log.debug("Invalid refresh token: {}", e.getMessage());
-            return false;
+            return Optional.empty();
         }
     }
 
+    /**
+     * Validate refresh token
+     *
+     * @param refreshToken Refresh token
+     * @return true if valid and stored in Redis
+     */
+    public boolean validateRefreshToken(String refreshToken) {
+        return verifyRefreshToken(refreshToken).isPresent();
+    }
+
     /**
      * Extract user ID from token
      */
@@ -200,11 +306,7 @@ public class JwtService {
      * Extract all claims from token
      */
     public Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return jwtParser.parseSignedClaims(token).getPayload();
     }
 
     /**
@@ -214,44 +316,44 @@ public class JwtService {
      */
     public void blacklistToken(String token) {
         try {
-            Claims claims = extractAllClaims(token);
-            String jti = claims.getId();
-            Date expiration = claims.getExpiration();
-
-            if (jti != null && expiration != null) {
-                // Store in blacklist until token expires
-                long ttl = expiration.getTime() - System.currentTimeMillis();
-                if (ttl > 0) {
-                    String key = BLACKLIST_PREFIX + jti;
-                    redisTemplate.opsForValue().set(key, "1", Duration.ofMillis(ttl));
-                    log.debug("Token blacklisted: {}", jti);
-                }
-            }
-
-            // Also delete refresh token
-            String sessionId = claims.get("sessionId", String.class);
-            if (sessionId != null) {
-                redisTemplate.delete(REFRESH_PREFIX + sessionId);
-            }
+            blacklistToken(extractAllClaims(token));
         } catch (JwtException e) {
             log.warn("Failed to blacklist token: {}", e.getMessage());
         }
     }
 
     /**
-     * Check if token is blacklisted
+     * Blacklist an already verified token (for logout)
+     *
+     * @param claims Verified token claims
      */
-    private boolean isBlacklisted(String jti) {
-        String key = BLACKLIST_PREFIX + jti;
-        return Boolean.TRUE.equals(redisTemplate.hasKey(key));
+    public void blacklistToken(Claims claims) {
+        String jti = claims.getId();
+        Date expiration = claims.getExpiration();
+
+        if (jti != null && expiration != null) {
+            // Store in blacklist until token expires
+            long ttl = expiration.getTime() - System.currentTimeMillis();
+            if (ttl > 0) {
+                String key = BLACKLIST_PREFIX + jti;
+                redisTemplate.opsForValue().set(key, "1", Duration.ofMillis(ttl));
+                blacklistCache.revoked(jti);
+                log.debug("Token blacklisted: {}", jti);
+            }
+        }
+
+        // Also delete refresh token
+        String sessionId = claims.get("sessionId", String.class);
+        if (sessionId != null) {
+            redisTemplate.delete(REFRESH_PREFIX + sessionId);
+        }
     }
 
     /**
-     * Get signing key from secret
+     * Check if token is blacklisted (answered locally unless the near-cache reports a possible match)
      */
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = jwtProperties.getSecret().getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes);
+    private boolean isBlacklisted(String jti) {
+        return blacklistCache.isRevoked(jti);
     }
 
     /**
@@ -263,4 +365,29 @@ public class JwtService {
         }
         return authHeader;
     }
+
+    /**
+     * Outcome of a batch token check
+     */
+    public enum TokenStatus {
+        VALID,
+        INVALID,
+        EXPIRED,
+        REVOKED,
+        SESSION_ENDED
+    }
+
+    /**
+     * Result of a batch token check (claims only for valid tokens)
+     */
+    public record TokenCheck(TokenStatus status, Claims claims, boolean sessionActive) {
+
+        static TokenCheck rejected(TokenStatus status) {
+            return new TokenCheck(status, null, false);
+        }
+
+        public boolean valid() {
+            return status == TokenStatus.VALID;
+        }
+    }
 }
@@ -0,0 +1,68 @@
+package com.carddemo.auth.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Login Attempt Service
+ *
+ * Failed-login counters kept in Redis (auth:login-attempts:{userId}) so that
+ * a brute-force flood costs an INCR instead of a users row UPDATE. The
+ * counter expires after auth.lock-duration-seconds without failures; the
+ * users table is only written when the account actually gets locked.
+ *
+ * COBOL Mapping:
+ *   Replaces the per-attempt rewrite of the USRSEC record (SEC-USR-ATTEMPTS)
+ */
+@Service
+@Slf4j
+public class LoginAttemptService {
+
+    private static final String ATTEMPTS_PREFIX = "auth:login-attempts:";
+
+    /**
+     * INCR and restart the window on every failure, in one round trip
+     */
+    private static final RedisScript<Long> RECORD_FAILURE = new DefaultRedisScript<>(
+            "local n = redis.call('INCR', KEYS[1]) " +
+            "redis.call('EXPIRE', KEYS[1], ARGV[1]) " +
+            "return n", Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final int windowSeconds;
+
+    public LoginAttemptService(StringRedisTemplate redisTemplate,
+                               @Value("${auth.lock-duration-seconds:1800}") int windowSeconds) {
+        this.redisTemplate = redisTemplate;
+        this.windowSeconds = windowSeconds;
+    }
+
+    /**
+     * Record a failed login
+     *
+     * @return failures within the current window, including this one
+     */
+    public int recordFailure(String userId) {
+        Long attempts = redisTemplate.execute(RECORD_FAILURE,
+                List.of(ATTEMPTS_PREFIX + userId), String.valueOf(windowSeconds));
+        return attempts == null ? 1 : attempts.intValue();
+    }
+
+    /**
+     * Forget failures (successful login or account locked); best effort, the key expires anyway
+     */
+    public void clear(String userId) {
+        try {
+            redisTemplate.delete(ATTEMPTS_PREFIX + userId);
+        } catch (DataAccessException e) {
+            log.warn("Failed to clear login attempts for {}: {}", userId, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.carddemo.auth.service;
+
+import com.carddemo.auth.exception.AuthException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Password Hashing Service
+ *
+ * Runs BCrypt on a dedicated, bounded pool instead of the request thread, so
+ * hash cost never holds a JDBC connection and a login storm queues here (and
+ * is shed with 503 once the queue is full) rather than in the Hikari pool.
+ *
+ * Metrics:
+ *   auth.password.hash{operation=verify|encode} - hash cost
+ *   auth.password.hash.rejected                 - requests shed (queue full / timeout)
+ *   auth.password.hash.queue                    - hashes waiting for a thread
+ */
+@Service
+@Slf4j
+public class PasswordHashingService {
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMs;
+    private final Timer verifyTimer;
+    private final Timer encodeTimer;
+    private final Counter rejectedCounter;
+
+    public PasswordHashingService(PasswordEncoder passwordEncoder,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${auth.password-hashing.threads:0}") int threads,
+                                  @Value("${auth.password-hashing.queue-capacity:64}") int queueCapacity,
+                                  @Value("${auth.password-hashing.timeout-ms:5000}") long timeoutMs) {
+        this.passwordEncoder = passwordEncoder;
+        this.timeoutMs = timeoutMs;
+
+        // BCrypt is CPU bound: default to one thread per core
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.verifyTimer = Timer.builder("auth.password.hash")
+                .description("BCrypt hash cost")
+                .tag("operation", "verify")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.encodeTimer = Timer.builder("auth.password.hash")
+                .description("BCrypt hash cost")
+                .tag("operation", "encode")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("auth.password.hash.rejected")
+                .description("Password hashes shed because the pool was saturated")
+                .register(meterRegistry);
+        Gauge.builder("auth.password.hash.queue", executor, e -> e.getQueue().size())
+                .description("Password hashes waiting for a thread")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Verify a password against its stored hash
+     *
+     * @throws AuthException 503 if the pool is saturated or the hash does not complete in time
+     */
+    public boolean matches(String rawPassword, String passwordHash) {
+        return run(() -> verifyTimer.record(() -> passwordEncoder.matches(rawPassword, passwordHash)));
+    }
+
+    /**
+     * New hash for the password if the stored one was made with a weaker work
+     * factor than the configured one (rehash-on-login). Best effort: empty if
+     * no upgrade is needed or the pool is busy; the next login retries.
+     */
+    public Optional<String> rehashIfNeeded(String rawPassword, String passwordHash) {
+        if (!passwordEncoder.upgradeEncoding(passwordHash)) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(run(() -> encodeTimer.record(() -> passwordEncoder.encode(rawPassword))));
+        } catch (AuthException e) {
+            log.debug("Password rehash skipped: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private <T> T run(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            log.warn("Password hashing pool saturated ({} queued), shedding login", executor.getQueue().size());
+            throw AuthException.serviceBusy();
+        }
+
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejectedCounter.increment();
+            log.warn("Password hashing did not complete within {} ms", timeoutMs);
+            throw AuthException.serviceBusy();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw AuthException.serviceBusy();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
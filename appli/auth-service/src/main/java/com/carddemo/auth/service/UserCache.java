@@ -0,0 +1,120 @@
+package com.carddemo.auth.service;
+
+import com.carddemo.auth.entity.User;
+import com.carddemo.auth.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * User Cache
+ *
+ * Bounded in-process cache of users rows for the login and token refresh
+ * read paths. Every users write in auth-service calls {@link #evict} or
+ * {@link #refresh}, which update the local entry and broadcast the user ID on
+ * auth:user:invalidate so the other nodes drop theirs. The TTL bounds
+ * staleness for rows changed outside auth-service.
+ *
+ * Callers get their own copy of the cached row and may modify it freely.
+ *
+ * CICS Equivalent: READ FILE('USRSEC') served from a data table instead of VSAM
+ */
+@Component
+@Slf4j
+public class UserCache implements MessageListener {
+
+    public static final String INVALIDATE_CHANNEL = "auth:user:invalidate";
+
+    private final UserRepository userRepository;
+    private final StringRedisTemplate redisTemplate;
+    private final Cache<String, User> cache;
+    // Tags this node's broadcasts so it does not drop the entries it just refreshed
+    private final String nodeId = UUID.randomUUID().toString();
+
+    public UserCache(UserRepository userRepository,
+                     StringRedisTemplate redisTemplate,
+                     MeterRegistry meterRegistry,
+                     @Value("${auth.user-cache.maximum-size:10000}") long maximumSize,
+                     @Value("${auth.user-cache.ttl-seconds:300}") long ttlSeconds) {
+        this.userRepository = userRepository;
+        this.redisTemplate = redisTemplate;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "auth.users");
+    }
+
+    /**
+     * Find user by ID (any status)
+     */
+    public Optional<User> findByUserId(String userId) {
+        // Atomic load: an evict during the read discards the row instead of being overwritten by it.
+        // Caffeine does not store a null result, so unknown IDs are never cached
+        User cached = cache.get(userId, id -> userRepository.findByUserId(id).orElse(null));
+        return Optional.ofNullable(cached).map(u -> u.toBuilder().build());
+    }
+
+    /**
+     * Find active user by ID
+     */
+    public Optional<User> findActiveByUserId(String userId) {
+        return findByUserId(userId).filter(User::getIsActive);
+    }
+
+    /**
+     * Drop a user after a write, on this node and (via pub/sub) on every other node
+     */
+    public void evict(String userId) {
+        cache.invalidate(userId);
+        broadcast(userId);
+    }
+
+    /**
+     * Keep a user's written row on this node and drop it on every other node
+     *
+     * Only replaces an entry that is still cached and not locked, so a lock
+     * that evicted the user meanwhile is never undone by this copy.
+     */
+    public void refresh(User user) {
+        User copy = user.toBuilder().build();
+        cache.asMap().computeIfPresent(user.getUserId(), (id, current) -> current.isLocked() ? current : copy);
+        broadcast(user.getUserId());
+    }
+
+    private void broadcast(String userId) {
+        try {
+            redisTemplate.convertAndSend(INVALIDATE_CHANNEL, nodeId + ":" + userId);
+        } catch (DataAccessException e) {
+            log.warn("Failed to broadcast user cache invalidation for {}: {}", userId, e.getMessage());
+        }
+    }
+
+    /**
+     * Invalidation published by another node (this node's own broadcasts are ignored)
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.indexOf(':');
+        if (separator < 0) {
+            cache.invalidate(body);
+        } else if (!nodeId.equals(body.substring(0, separator))) {
+            cache.invalidate(body.substring(separator + 1));
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.carddemo.benchmarks;
+
+import com.carddemo.partner.dto.ApiKeyValidationResponse;
+import com.carddemo.partner.entity.Partner;
+import com.carddemo.partner.entity.PartnerApiKey;
+import com.carddemo.partner.repository.PartnerApiKeyRepository;
+import com.carddemo.partner.repository.PartnerRepository;
+import com.carddemo.partner.service.ApiKeyCache;
+import com.carddemo.partner.service.ApiKeyService;
+import com.carddemo.partner.service.ApiKeyUsageTracker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ApiKeyService.validateApiKey - SHA-256 hashing and checks run on every partner API call
+ * (steady state: key served from ApiKeyCache, last-used write deferred to the batch flush)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+@State(Scope.Benchmark)
+public class ApiKeyValidationBenchmark {
+
+    private static final String API_KEY = "pk_live_3f9a1c7e5b2d4f6a8c0e1b3d5f7a9c2e";
+
+    private ApiKeyService apiKeyService;
+
+    @Setup
+    public void setUp() {
+        Partner partner = Partner.builder()
+                .partnerId(1)
+                .partnerName("Benchmark Fintech")
+                .partnerType("FINTECH")
+                .allowedScopes(new String[]{"transactions:read", "accounts:read", "cards:read"})
+                .build();
+        PartnerApiKey key = PartnerApiKey.builder()
+                .keyId(1)
+                .partner(partner)
+                .keyPrefix("pk_live_")
+                .keySuffix(API_KEY.substring(API_KEY.length() - 8))
+                .build();
+
+        PartnerApiKeyRepository apiKeyRepository = Stubs.of(PartnerApiKeyRepository.class, Map.of(
+                "findByApiKeyHashAndIsActiveTrue", args -> Optional.of(key)));
+
+        // Redis and JDBC are only touched on eviction / flush, which the benchmark never triggers
+        ApiKeyCache apiKeyCache = new ApiKeyCache(new StringRedisTemplate(), new SimpleMeterRegistry(),
+                10_000, 300, 1_000, 30);
+        ApiKeyUsageTracker usageTracker = new ApiKeyUsageTracker(new JdbcTemplate());
+
+        apiKeyService = new ApiKeyService(Stubs.of(PartnerRepository.class, Map.of()), apiKeyRepository,
+                apiKeyCache, usageTracker);
+    }
+
+    @Benchmark
+    public ApiKeyValidationResponse validateApiKey() {
+        return apiKeyService.validateApiKey(API_KEY);
+    }
+}
@@ -0,0 +1,75 @@
+package com.carddemo.benchmarks;
+
+import com.carddemo.shared.event.AccountUpdatedEvent;
+import com.carddemo.shared.event.CardStatusChangedEvent;
+import com.carddemo.shared.event.DomainEvent;
+import com.carddemo.shared.event.TransactionCreatedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson (de)serialization of shared.event types - outbox payloads and Kafka records
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+@State(Scope.Benchmark)
+public class EventSerializationBenchmark {
+
+    @Param({"TransactionCreated", "CardStatusChanged", "AccountUpdated"})
+    public String eventType;
+
+    private ObjectMapper objectMapper;
+    private DomainEvent event;
+    private String json;
+    private Map<String, Object> payload;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        // Same defaults as the services' auto-configured ObjectMapper
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        event = switch (eventType) {
+            case "TransactionCreated" -> TransactionCreatedEvent.create(
+                    1000001L, 10000000001L, "SALE", "GROCERY", "POS TERM",
+                    "Purchase at merchant", new BigDecimal("-42.99"), "MERCH1", "Merchant 1",
+                    "Seattle", "98101", "4111111111111111",
+                    LocalDate.of(2026, 1, 15), LocalTime.of(12, 30, 0));
+            case "CardStatusChanged" -> CardStatusChangedEvent.create(
+                    "4111111111111111", 10000000001L, "Y", "S", "Reported stolen", "ADMIN001");
+            default -> AccountUpdatedEvent.createBalanceChange(
+                    10000000001L, 1, new BigDecimal("1500.00"), new BigDecimal("1457.01"), "SYSTEM");
+        };
+
+        json = objectMapper.writeValueAsString(event);
+        payload = objectMapper.convertValue(event, Map.class);
+    }
+
+    @Benchmark
+    public String serialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(event);
+    }
+
+    @Benchmark
+    public DomainEvent deserialize() throws JsonProcessingException {
+        return objectMapper.readValue(json, DomainEvent.class);
+    }
+
+    /**
+     * Outbox jsonb payload (Map) back to a DomainEvent
+     */
+    @Benchmark
+    public DomainEvent convertPayload() {
+        return objectMapper.convertValue(payload, DomainEvent.class);
+    }
+}
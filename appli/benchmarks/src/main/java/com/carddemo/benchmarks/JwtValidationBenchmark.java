@@ -0,0 +1,75 @@
+package com.carddemo.benchmarks;
+
+import com.carddemo.auth.config.JwtProperties;
+import com.carddemo.auth.entity.User;
+import com.carddemo.auth.service.JwtService;
+import com.carddemo.shared.security.TokenBlacklistCache;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JwtService token validation - the /api/v1/auth/validate hot path (blacklist near-cache primed empty, Redis stubbed)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+@State(Scope.Benchmark)
+public class JwtValidationBenchmark {
+
+    private JwtService jwtService;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        JwtProperties properties = new JwtProperties();
+        properties.setSecret("carddemo-benchmark-secret-key-minimum-256-bits-long");
+        properties.setExpiration(3_600_000);
+
+        StringRedisTemplate redisTemplate = new NoBlacklistRedisTemplate();
+        TokenBlacklistCache blacklistCache = new TokenBlacklistCache(redisTemplate, properties.getBlacklist());
+        blacklistCache.rebuild(List.of());
+        jwtService = new JwtService(properties, redisTemplate, blacklistCache);
+
+        User user = User.builder()
+                .userId("USER0001")
+                .firstName("Bench")
+                .lastName("Mark")
+                .userType("U")
+                .customerId(1)
+                .build();
+        token = jwtService.generateAccessToken(user, "session-benchmark");
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return jwtService.validateToken(token);
+    }
+
+    @Benchmark
+    public Optional<Claims> verifyToken() {
+        return jwtService.verifyToken(token);
+    }
+
+    @Benchmark
+    public Claims extractAllClaims() {
+        return jwtService.extractAllClaims(token);
+    }
+
+    /**
+     * Blacklist lookups always miss; no Redis connection is opened
+     */
+    static class NoBlacklistRedisTemplate extends StringRedisTemplate {
+
+        @Override
+        public Boolean hasKey(String key) {
+            return Boolean.FALSE;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.carddemo.benchmarks;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * In-memory stand-ins for Spring Data repositories.
+ *
+ * Benchmarks measure service-layer CPU cost, so repository calls answer from
+ * canned data instead of a database. Unstubbed methods fail loudly.
+ */
+final class Stubs {
+
+    private Stubs() {
+        // Utility class
+    }
+
+    /**
+     * Create a stub of the given interface answering the named methods
+     */
+    @SuppressWarnings("unchecked")
+    static <T> T of(Class<T> type, Map<String, Function<Object[], Object>> answers) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            Function<Object[], Object> answer = answers.get(method.getName());
+            if (answer != null) {
+                return answer.apply(args);
+            }
+            return switch (method.getName()) {
+                case "toString" -> type.getSimpleName() + "Stub";
+                case "hashCode" -> System.identityHashCode(proxy);
+                case "equals" -> proxy == args[0];
+                default -> throw new UnsupportedOperationException(
+                        type.getSimpleName() + "." + method.getName() + " is not stubbed");
+            };
+        });
+    }
+}
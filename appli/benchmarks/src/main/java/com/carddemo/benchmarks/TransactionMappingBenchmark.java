@@ -0,0 +1,77 @@
+package com.carddemo.benchmarks;
+
+import com.carddemo.transaction.dto.TransactionResponse;
+import com.carddemo.transaction.entity.Transaction;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TransactionResponse.fromEntity - entity to DTO mapping used by every listing endpoint
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+@State(Scope.Benchmark)
+public class TransactionMappingBenchmark {
+
+    private static final String[] TYPES = {"SALE", "PYMT", "RFND"};
+    private static final String[] CATEGORIES = {"GROCERY", "GAS", "RETAIL", "DINING", "TRAVEL", null};
+
+    /**
+     * Page size of the listing being mapped
+     */
+    @Param({"20", "100"})
+    public int pageSize;
+
+    private Transaction single;
+    private List<Transaction> page;
+
+    @Setup
+    public void setUp() {
+        page = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            page.add(transaction(i));
+        }
+        single = page.get(0);
+    }
+
+    @Benchmark
+    public TransactionResponse mapOne() {
+        return TransactionResponse.fromEntity(single);
+    }
+
+    @Benchmark
+    public void mapPage(Blackhole blackhole) {
+        for (Transaction transaction : page) {
+            blackhole.consume(TransactionResponse.fromEntity(transaction));
+        }
+    }
+
+    static Transaction transaction(int i) {
+        return Transaction.builder()
+                .transactionId(1_000_000L + i)
+                .accountId(10000000001L)
+                .transactionType(TYPES[i % TYPES.length])
+                .transactionCategory(CATEGORIES[i % CATEGORIES.length])
+                .transactionSource("POS TERM")
+                .transactionDesc("Purchase at merchant " + i)
+                .transactionAmount(BigDecimal.valueOf(-(i % 500) - 1, 0).add(new BigDecimal("0.99")))
+                .merchantId("MERCH" + (i % 50))
+                .merchantName("Merchant " + (i % 50))
+                .merchantCity("Seattle")
+                .merchantZip("98101")
+                .cardNumber("4111111111111111")
+                .transactionDate(LocalDate.of(2026, 1, 1).plusDays(i % 365))
+                .transactionTime(LocalTime.of(i % 24, i % 60))
+                .build();
+    }
+}
@@ -0,0 +1,66 @@
+package com.carddemo.benchmarks;
+
+import com.carddemo.transaction.dto.TransactionSummaryResponse;
+import com.carddemo.transaction.entity.TransactionSummaryRollup;
+import com.carddemo.transaction.repository.TransactionRepository;
+import com.carddemo.transaction.repository.TransactionSummaryRollupRepository;
+import com.carddemo.transaction.service.TransactionRollupService;
+import com.carddemo.transaction.service.TransactionService;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TransactionService.getTransactionSummary - CORPT00C aggregation over an account's rollups
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+@State(Scope.Benchmark)
+public class TransactionSummaryBenchmark {
+
+    private static final Long ACCOUNT_ID = 10000000001L;
+    private static final String[] TYPES = {"SALE", "PYMT", "RFND"};
+
+    /**
+     * Distinct categories per transaction type for the account
+     */
+    @Param({"5", "50"})
+    public int categories;
+
+    private TransactionService transactionService;
+
+    @Setup
+    public void setUp() {
+        List<TransactionSummaryRollup> rollups = new ArrayList<>();
+        for (String type : TYPES) {
+            for (int c = 0; c < categories; c++) {
+                rollups.add(TransactionSummaryRollup.builder()
+                        .accountId(ACCOUNT_ID)
+                        .transactionType(type)
+                        .transactionCategory(c == 0 ? TransactionSummaryRollup.NO_CATEGORY : "CAT" + c)
+                        .transactionCount(10 + c)
+                        .totalAmount(BigDecimal.valueOf("PYMT".equals(type) ? 1000 + c : -(250 + c), 2))
+                        .absTotalAmount(BigDecimal.valueOf("PYMT".equals(type) ? 1000 + c : 250 + c, 2))
+                        .build());
+            }
+        }
+
+        TransactionSummaryRollupRepository rollupRepository = Stubs.of(TransactionSummaryRollupRepository.class,
+                Map.of("findByAccountIdOrderByTransactionCategoryAsc", args -> rollups));
+        TransactionRepository transactionRepository = Stubs.of(TransactionRepository.class, Map.of());
+
+        transactionService = new TransactionService(transactionRepository, new TransactionRollupService(rollupRepository));
+    }
+
+    @Benchmark
+    public TransactionSummaryResponse accountSummary() {
+        return transactionService.getTransactionSummary(ACCOUNT_ID);
+    }
+}
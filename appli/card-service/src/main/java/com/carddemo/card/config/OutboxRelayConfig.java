@@ -0,0 +1,24 @@
+package com.carddemo.card.config;
+
+import com.carddemo.shared.event.KafkaTopics;
+import com.carddemo.shared.outbox.OutboxRelayConfiguration;
+import com.carddemo.shared.outbox.OutboxRelayDefinition;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+/**
+ * Outbox Relay Configuration
+ *
+ * Publishes card_outbox rows to the card events topic (relay wiring in
+ * OutboxRelayConfiguration).
+ */
+@Configuration
+@Import(OutboxRelayConfiguration.class)
+public class OutboxRelayConfig {
+
+    @Bean
+    public OutboxRelayDefinition outboxRelayDefinition() {
+        return new OutboxRelayDefinition("card", "card_outbox", KafkaTopics.CARDS);
+    }
+}
@@ -10,6 +10,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Pattern;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -40,6 +41,9 @@ import java.util.Map;
 @Tag(name = "Card Management", description = "Credit card operations (COCRDLIC/COCRDSLC/COCRDUPC)")
 public class CardController {
 
+    // card_last_four is CHAR(4): partial or padded input would never match
+    private static final String LAST_FOUR_PATTERN = "^\\d{4}$";
+
     private final CardService cardService;
 
     /**
@@ -227,6 +231,7 @@ public class CardController {
     )
     public ResponseEntity<CardResponse> getCardByLastFour(
             @Parameter(description = "Last 4 digits of card number")
+            @Pattern(regexp = LAST_FOUR_PATTERN, message = "Last four must be exactly 4 digits")
             @PathVariable String lastFour) {
 
         log.info("GET /api/v1/cards/by-last-four/{}", lastFour);
@@ -244,6 +249,7 @@ public class CardController {
     )
     public ResponseEntity<CardResponse> updateCardStatusByLastFour(
             @Parameter(description = "Last 4 digits of card number")
+            @Pattern(regexp = LAST_FOUR_PATTERN, message = "Last four must be exactly 4 digits")
             @PathVariable String lastFour,
             @Valid @RequestBody UpdateCardStatusRequest request) {
 
@@ -262,6 +268,7 @@ public class CardController {
     )
     public ResponseEntity<CardResponse> blockCardByLastFour(
             @Parameter(description = "Last 4 digits of card number")
+            @Pattern(regexp = LAST_FOUR_PATTERN, message = "Last four must be exactly 4 digits")
             @PathVariable String lastFour,
             @RequestBody(required = false) Map<String, String> body) {
 
@@ -285,6 +292,7 @@ public class CardController {
     })
     public ResponseEntity<CardResponse> reissueCardByLastFour(
             @Parameter(description = "Last 4 digits of card number")
+            @Pattern(regexp = LAST_FOUR_PATTERN, message = "Last four must be exactly 4 digits")
             @PathVariable String lastFour) {
 
         log.info("POST /api/v1/cards/by-last-four/{}/reissue", lastFour);
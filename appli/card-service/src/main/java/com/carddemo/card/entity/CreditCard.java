@@ -80,6 +80,12 @@ public class CreditCard {
     @Builder.Default
     private String activeStatus = "Y";
 
+    /**
+     * Last four digits of the card number (generated column, read-only)
+     */
+    @Column(name = "card_last_four", columnDefinition = "char(4)", insertable = false, updatable = false)
+    private String cardLastFour;
+
     /**
      * Card issue date
      */
@@ -91,9 +91,9 @@ public interface CreditCardRepository extends JpaRepository<CreditCard, String>
     List<CreditCard> findByCustomerId(@Param("customerId") Integer customerId);
 
     /**
-     * Find card by last 4 digits (for frontend navigation)
+     * Find card by last 4 digits (for frontend navigation; exact match on CHAR(4), callers pass 4 digits)
      * Note: In production, this should be combined with additional identifiers for security
      */
-    @Query("SELECT c FROM CreditCard c WHERE c.cardNumber LIKE CONCAT('%', :lastFour)")
+    @Query("SELECT c FROM CreditCard c WHERE c.cardLastFour = :lastFour")
     List<CreditCard> findByLastFourDigits(@Param("lastFour") String lastFour);
 }
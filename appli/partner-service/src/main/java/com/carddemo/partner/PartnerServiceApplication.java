@@ -2,6 +2,7 @@ package com.carddemo.partner;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Partner API Gateway Service
@@ -12,6 +13,7 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
  * Port: 8085
  */
 @SpringBootApplication
+@EnableScheduling
 public class PartnerServiceApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,18 @@
+package com.carddemo.partner.config;
+
+import com.carddemo.shared.security.JwtVerifierConfiguration;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+/**
+ * JWT Verification Configuration
+ *
+ * Verifies auth-service access tokens locally on the partner management API
+ * (/api/**). Partner API calls (/partner/v1/**) keep using API keys.
+ * With jwt.blacklist.enabled, revocations are checked through the shared
+ * Redis blacklist near-cache (subscribed in RedisConfig).
+ */
+@Configuration
+@Import(JwtVerifierConfiguration.class)
+public class JwtVerifierConfig {
+}
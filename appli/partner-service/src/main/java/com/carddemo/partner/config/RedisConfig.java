@@ -1,9 +1,14 @@
 package com.carddemo.partner.config;
 
+import com.carddemo.partner.service.ApiKeyCache;
+import com.carddemo.shared.security.TokenBlacklistCache;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 @Configuration
@@ -20,4 +25,19 @@ public class RedisConfig {
         template.afterPropertiesSet();
         return template;
     }
+
+    /**
+     * Pub/sub listeners: API key cache invalidation and (if enabled) token revocations
+     */
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                       ApiKeyCache apiKeyCache,
+                                                                       ObjectProvider<TokenBlacklistCache> tokenBlacklistCache) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(apiKeyCache, new ChannelTopic(ApiKeyCache.INVALIDATE_CHANNEL));
+        tokenBlacklistCache.ifAvailable(cache ->
+                container.addMessageListener(cache, new ChannelTopic(TokenBlacklistCache.EVENTS_CHANNEL)));
+        return container;
+    }
 }
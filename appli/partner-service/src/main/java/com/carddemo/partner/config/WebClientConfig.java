@@ -0,0 +1,63 @@
+package com.carddemo.partner.config;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+/**
+ * Gateway WebClients
+ *
+ * One WebClient per backend service, built once and sharing a pooled,
+ * bounded connection provider, so proxied calls reuse keep-alive connections
+ * instead of building a client per request.
+ */
+@Configuration
+public class WebClientConfig {
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider gatewayConnectionProvider(
+            @Value("${partner.gateway.max-connections:500}") int maxConnections,
+            @Value("${partner.gateway.pending-acquire-timeout-ms:5000}") long pendingAcquireTimeoutMs,
+            @Value("${partner.gateway.max-idle-time-ms:30000}") long maxIdleTimeMs) {
+        return ConnectionProvider.builder("partner-gateway")
+                .maxConnections(maxConnections)
+                .pendingAcquireTimeout(Duration.ofMillis(pendingAcquireTimeoutMs))
+                .maxIdleTime(Duration.ofMillis(maxIdleTimeMs))
+                .metrics(true)
+                .build();
+    }
+
+    @Bean
+    public BackendClients backendClients(
+            WebClient.Builder webClientBuilder,
+            ConnectionProvider gatewayConnectionProvider,
+            @Value("${partner.gateway.connect-timeout-ms:2000}") int connectTimeoutMs,
+            @Value("${partner.gateway.response-timeout-ms:10000}") long responseTimeoutMs,
+            @Value("${services.account-service}") String accountServiceUrl,
+            @Value("${services.card-service}") String cardServiceUrl,
+            @Value("${services.transaction-service}") String transactionServiceUrl) {
+
+        HttpClient httpClient = HttpClient.create(gatewayConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMs)
+                .responseTimeout(Duration.ofMillis(responseTimeoutMs));
+        WebClient.Builder builder = webClientBuilder.clone()
+                .clientConnector(new ReactorClientHttpConnector(httpClient));
+
+        return new BackendClients(
+                builder.clone().baseUrl(accountServiceUrl).build(),
+                builder.clone().baseUrl(cardServiceUrl).build(),
+                builder.clone().baseUrl(transactionServiceUrl).build());
+    }
+
+    /**
+     * Shared clients for the services behind the partner gateway
+     */
+    public record BackendClients(WebClient accountService, WebClient cardService, WebClient transactionService) {}
+}
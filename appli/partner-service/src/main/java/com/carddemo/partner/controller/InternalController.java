@@ -39,10 +39,12 @@ public class InternalController {
     public ResponseEntity<RateLimitResponse> checkRateLimit(
             @PathVariable Integer partnerId,
             @RequestParam int limitPerMinute,
-            @RequestParam int dailyQuota) {
+            @RequestParam int dailyQuota,
+            @RequestParam(required = false) String algorithm,
+            @RequestParam(required = false) Integer burst) {
 
         RateLimitService.RateLimitResult result = rateLimitService.checkRateLimit(
-                partnerId, limitPerMinute, dailyQuota);
+                partnerId, limitPerMinute, dailyQuota, RateLimitService.Algorithm.fromCode(algorithm), burst);
 
         RateLimitResponse response = new RateLimitResponse(
                 result.limited(),
@@ -50,7 +52,8 @@ public class InternalController {
                 result.message(),
                 result.retryAfterSeconds(),
                 result.limit(),
-                result.remaining()
+                result.remaining(),
+                result.resetSeconds()
         );
 
         return ResponseEntity.ok(response);
@@ -73,6 +76,7 @@ public class InternalController {
             String message,
             long retryAfterSeconds,
             int limit,
-            long remaining
+            long remaining,
+            long resetSeconds
     ) {}
 }
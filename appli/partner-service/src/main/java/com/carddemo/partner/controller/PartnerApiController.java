@@ -1,32 +1,39 @@
 package com.carddemo.partner.controller;
 
-import com.carddemo.partner.dto.ApiKeyValidationResponse;
+import com.carddemo.partner.config.WebClientConfig.BackendClients;
+import com.carddemo.partner.entity.PartnerApiLog;
 import com.carddemo.partner.exception.PartnerException;
 import com.carddemo.partner.service.ApiKeyService;
+import com.carddemo.partner.service.ApiLogWriter;
 import com.carddemo.partner.service.RateLimitService;
+import com.carddemo.partner.service.UsageRollupService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.HandlerMapping;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Partner API Gateway - Proxies requests to backend services with API key authentication.
  *
- * This controller handles all /partner/v1/* requests:
+ * This controller handles all /partner/v1/* requests without blocking the
+ * request thread (cached key validation, reactive Redis, shared WebClients):
  * 1. Validates the API key
  * 2. Checks rate limits
  * 3. Verifies scopes
  * 4. Proxies the request to the appropriate backend service
  * 5. Returns the response with rate limit headers
+ * 6. Queues an audit entry for partner_api_logs (see ApiLogWriter)
  */
 @RestController
 @RequestMapping("/partner/v1")
@@ -37,16 +44,9 @@ public class PartnerApiController {
 
     private final ApiKeyService apiKeyService;
     private final RateLimitService rateLimitService;
-    private final WebClient.Builder webClientBuilder;
-
-    @Value("${services.account-service}")
-    private String accountServiceUrl;
-
-    @Value("${services.card-service}")
-    private String cardServiceUrl;
-
-    @Value("${services.transaction-service}")
-    private String transactionServiceUrl;
+    private final ApiLogWriter apiLogWriter;
+    private final UsageRollupService usageRollupService;
+    private final BackendClients backendClients;
 
     // ========== Account Endpoints ==========
 
@@ -58,7 +58,7 @@ public class PartnerApiController {
             HttpServletRequest request) {
 
         return executeWithAuth(apiKey, "accounts:read", request, () ->
-                proxyGet(accountServiceUrl + "/api/v1/accounts/" + accountId));
+                proxyGet(backendClients.accountService(), "/api/v1/accounts/" + accountId));
     }
 
     @GetMapping("/accounts/{accountId}/balance")
@@ -69,7 +69,7 @@ public class PartnerApiController {
             HttpServletRequest request) {
 
         return executeWithAuth(apiKey, "accounts:read", request, () ->
-                proxyGet(accountServiceUrl + "/api/v1/accounts/" + accountId)
+                proxyGet(backendClients.accountService(), "/api/v1/accounts/" + accountId)
                         .map(response -> {
                             // Transform to simplified balance response
                             // In real implementation, would parse and filter fields
@@ -88,10 +88,10 @@ public class PartnerApiController {
             @RequestParam(defaultValue = "20") int size,
             HttpServletRequest request) {
 
-        String url = String.format("%s/api/v1/transactions/account/%d?page=%d&size=%d",
-                transactionServiceUrl, accountId, page, size);
+        String uri = String.format("/api/v1/transactions/account/%d?page=%d&size=%d", accountId, page, size);
 
-        return executeWithAuth(apiKey, "transactions:read", request, () -> proxyGet(url));
+        return executeWithAuth(apiKey, "transactions:read", request, () ->
+                proxyGet(backendClients.transactionService(), uri));
     }
 
     @GetMapping("/transactions/{transactionId}")
@@ -102,7 +102,7 @@ public class PartnerApiController {
             HttpServletRequest request) {
 
         return executeWithAuth(apiKey, "transactions:read", request, () ->
-                proxyGet(transactionServiceUrl + "/api/v1/transactions/" + transactionId));
+                proxyGet(backendClients.transactionService(), "/api/v1/transactions/" + transactionId));
     }
 
     // ========== Card Endpoints ==========
@@ -115,7 +115,7 @@ public class PartnerApiController {
             HttpServletRequest request) {
 
         return executeWithAuth(apiKey, "cards:read", request, () ->
-                proxyGet(cardServiceUrl + "/api/v1/cards/account/" + accountId));
+                proxyGet(backendClients.cardService(), "/api/v1/cards/account/" + accountId));
     }
 
     // ========== Helper Methods ==========
@@ -126,52 +126,103 @@ public class PartnerApiController {
             HttpServletRequest request,
             java.util.function.Supplier<Mono<ResponseEntity<Object>>> action) {
 
-        // 1. Validate API key
-        ApiKeyValidationResponse validation = apiKeyService.validateApiKey(apiKey);
-        if (!validation.isValid()) {
-            return Mono.just(ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                    .body(createErrorResponse(validation.getErrorCode(), validation.getErrorMessage())));
-        }
+        long startNanos = System.nanoTime();
+        PartnerApiLog.PartnerApiLogBuilder logEntry = newLogEntry(apiKey, request);
+
+        // 1. Validate API key (cached; a miss is read off the calling thread)
+        return apiKeyService.validateApiKeyAsync(apiKey).flatMap(validation -> {
+            if (!validation.isValid()) {
+                writeLog(logEntry, startNanos, HttpStatus.UNAUTHORIZED.value(),
+                        validation.getErrorCode(), validation.getErrorMessage());
+                return Mono.just(ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                        .body(createErrorResponse(validation.getErrorCode(), validation.getErrorMessage())));
+            }
+            logEntry.partnerId(validation.getPartnerId());
+
+            // 2. Check scope
+            if (!validation.getScopes().contains(requiredScope) && !validation.getScopes().contains("*")) {
+                PartnerException e = PartnerException.insufficientScope(requiredScope);
+                writeLog(logEntry, startNanos, e.getStatus().value(), e.getErrorCode(), e.getMessage());
+                return Mono.error(e);
+            }
+
+            // 3. Check rate limit (reactive Redis)
+            return rateLimitService.checkRateLimitAsync(
+                    validation.getPartnerId(),
+                    validation.getRateLimitPerMinute(),
+                    validation.getDailyQuota(),
+                    RateLimitService.Algorithm.fromCode(validation.getRateLimitAlgorithm()),
+                    validation.getRateLimitBurst()
+            ).flatMap(rateLimit -> {
+                if (rateLimit.limited()) {
+                    writeLog(logEntry, startNanos, HttpStatus.TOO_MANY_REQUESTS.value(),
+                            rateLimit.errorCode(), rateLimit.message());
+                    HttpHeaders headers = createRateLimitHeaders(rateLimit);
+                    return Mono.just(ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                            .headers(h -> h.addAll(headers))
+                            .body(createErrorResponse(rateLimit.errorCode(), rateLimit.message())));
+                }
 
-        // 2. Check scope
-        if (!validation.getScopes().contains(requiredScope) && !validation.getScopes().contains("*")) {
-            throw PartnerException.insufficientScope(requiredScope);
-        }
+                // 4. Execute the action and add rate limit headers
+                return action.get()
+                        .map(response -> {
+                            HttpHeaders headers = createRateLimitHeaders(rateLimit);
+                            return ResponseEntity.status(response.getStatusCode())
+                                    .headers(h -> h.addAll(headers))
+                                    .body(response.getBody());
+                        })
+                        .doOnSuccess(r -> {
+                            rateLimitService.recordUsage(validation.getPartnerId(), r.getStatusCode().is2xxSuccessful());
+                            writeLog(logEntry, startNanos, r.getStatusCode().value(), null, null);
+                        })
+                        .doOnError(e -> {
+                            rateLimitService.recordUsage(validation.getPartnerId(), false);
+                            writeLog(logEntry, startNanos, HttpStatus.INTERNAL_SERVER_ERROR.value(),
+                                    "INTERNAL_ERROR", e.getMessage());
+                        });
+            });
+        });
+    }
 
-        // 3. Check rate limit
-        RateLimitService.RateLimitResult rateLimit = rateLimitService.checkRateLimit(
-                validation.getPartnerId(),
-                validation.getRateLimitPerMinute(),
-                validation.getDailyQuota()
-        );
-
-        if (rateLimit.limited()) {
-            HttpHeaders headers = createRateLimitHeaders(rateLimit);
-            return Mono.just(ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
-                    .headers(h -> h.addAll(headers))
-                    .body(createErrorResponse(rateLimit.errorCode(), rateLimit.message())));
-        }
+    /**
+     * Request details for the audit log, captured before the request is handed off
+     */
+    private PartnerApiLog.PartnerApiLogBuilder newLogEntry(String apiKey, HttpServletRequest request) {
+        // Route pattern rather than the raw URI, so endpoints aggregate across IDs
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return PartnerApiLog.builder()
+                .apiKeyPrefix(truncate(apiKey, 8)) // environment prefix only, never key material
+                .endpoint(truncate(pattern != null ? pattern.toString() : request.getRequestURI(), 255))
+                .method(request.getMethod())
+                .ipAddress(request.getRemoteAddr())
+                .userAgent(truncate(request.getHeader(HttpHeaders.USER_AGENT), 255))
+                .requestTimestamp(LocalDateTime.now());
+    }
 
-        // 4. Execute the action and add rate limit headers
-        return action.get()
-                .map(response -> {
-                    HttpHeaders headers = createRateLimitHeaders(rateLimit);
-                    return ResponseEntity.status(response.getStatusCode())
-                            .headers(h -> h.addAll(headers))
-                            .body(response.getBody());
-                })
-                .doOnSuccess(r -> rateLimitService.recordUsage(validation.getPartnerId(), r.getStatusCode().is2xxSuccessful()))
-                .doOnError(e -> rateLimitService.recordUsage(validation.getPartnerId(), false));
+    private void writeLog(PartnerApiLog.PartnerApiLogBuilder logEntry, long startNanos,
+                          int statusCode, String errorCode, String errorMessage) {
+        PartnerApiLog entry = logEntry
+                .statusCode(statusCode)
+                .responseTimeMs((int) TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos))
+                .errorCode(errorCode)
+                .errorMessage(truncate(errorMessage, 500))
+                .build();
+        usageRollupService.record(entry.getPartnerId(), entry.getEndpoint(), statusCode, entry.getResponseTimeMs());
+        apiLogWriter.submit(entry);
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value != null && value.length() > maxLength ? value.substring(0, maxLength) : value;
     }
 
-    private Mono<ResponseEntity<Object>> proxyGet(String url) {
-        return webClientBuilder.build()
+    private Mono<ResponseEntity<Object>> proxyGet(WebClient backend, String uri) {
+        return backend
                 .get()
-                .uri(url)
+                .uri(uri)
                 .retrieve()
                 .toEntity(Object.class)
                 .onErrorResume(e -> {
-                    log.error("Error proxying request to {}: {}", url, e.getMessage());
+                    log.error("Error proxying request to {}: {}", uri, e.getMessage());
                     return Mono.just(ResponseEntity.status(HttpStatus.BAD_GATEWAY)
                             .body(createErrorResponse("UPSTREAM_ERROR", "Error communicating with backend service")));
                 });
@@ -181,6 +232,7 @@ public class PartnerApiController {
         HttpHeaders headers = new HttpHeaders();
         headers.add("X-RateLimit-Limit", String.valueOf(rateLimit.limit()));
         headers.add("X-RateLimit-Remaining", String.valueOf(rateLimit.remaining()));
+        headers.add("X-RateLimit-Reset", String.valueOf(rateLimit.resetSeconds()));
         if (rateLimit.retryAfterSeconds() > 0) {
             headers.add("Retry-After", String.valueOf(rateLimit.retryAfterSeconds()));
         }
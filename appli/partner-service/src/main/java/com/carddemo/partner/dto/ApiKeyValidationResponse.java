@@ -20,6 +20,8 @@ public class ApiKeyValidationResponse {
     private List<String> scopes;
     private Integer rateLimitPerMinute;
     private Integer dailyQuota;
+    private String rateLimitAlgorithm;
+    private Integer rateLimitBurst;
     private String errorCode;
     private String errorMessage;
 
@@ -43,4 +43,12 @@ public class PartnerRequest {
     @Min(value = 100, message = "Daily quota must be at least 100")
     @Max(value = 1000000, message = "Daily quota cannot exceed 1,000,000")
     private Integer dailyQuota;
+
+    @Pattern(regexp = "^(FIXED_WINDOW|SLIDING_WINDOW|TOKEN_BUCKET)$",
+             message = "Rate limit algorithm must be FIXED_WINDOW, SLIDING_WINDOW, or TOKEN_BUCKET")
+    private String rateLimitAlgorithm;
+
+    @Min(value = 1, message = "Burst must be at least 1")
+    @Max(value = 10000, message = "Burst cannot exceed 10000")
+    private Integer rateLimitBurst;
 }
@@ -24,6 +24,8 @@ public class PartnerResponse {
     private List<String> allowedScopes;
     private Integer rateLimitPerMinute;
     private Integer dailyQuota;
+    private String rateLimitAlgorithm;
+    private Integer rateLimitBurst;
     private Boolean isActive;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
@@ -27,10 +27,17 @@ public class UsageResponse {
     private Long requestsToday;
     private Long remainingToday;
 
-    // Stats
+    // Stats over the requested window (hourly rollups)
+    private Long errorRequests;
     private Double avgResponseTimeMs;
+    private Double p50ResponseTimeMs;
+    private Double p95ResponseTimeMs;
+    private Double p99ResponseTimeMs;
     private Map<String, Long> topEndpoints;
 
+    // Last 60 minutes (minute rollups)
+    private RecentUsage lastHour;
+
     // Daily breakdown
     private List<DailyUsage> dailyUsage;
 
@@ -44,4 +51,15 @@ public class UsageResponse {
         private Integer successfulRequests;
         private Integer failedRequests;
     }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class RecentUsage {
+        private Long totalRequests;
+        private Long errorRequests;
+        private Double avgResponseTimeMs;
+        private Double p95ResponseTimeMs;
+    }
 }
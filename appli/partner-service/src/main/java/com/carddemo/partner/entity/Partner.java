@@ -52,6 +52,13 @@ public class Partner {
     @Builder.Default
     private Integer dailyQuota = 10000;
 
+    @Column(name = "rate_limit_algorithm", nullable = false, length = 20)
+    @Builder.Default
+    private String rateLimitAlgorithm = "FIXED_WINDOW"; // FIXED_WINDOW, SLIDING_WINDOW, TOKEN_BUCKET
+
+    @Column(name = "rate_limit_burst")
+    private Integer rateLimitBurst; // TOKEN_BUCKET capacity (null = rateLimitPerMinute)
+
     @Column(name = "is_active")
     @Builder.Default
     private Boolean isActive = true;
@@ -18,16 +18,4 @@ public interface PartnerApiLogRepository extends JpaRepository<PartnerApiLog, Lo
     @Query("SELECT l FROM PartnerApiLog l WHERE l.partnerId = :partnerId " +
            "AND l.requestTimestamp BETWEEN :start AND :end ORDER BY l.requestTimestamp DESC")
     List<PartnerApiLog> findByPartnerIdAndDateRange(Integer partnerId, LocalDateTime start, LocalDateTime end);
-
-    @Query("SELECT COUNT(l) FROM PartnerApiLog l WHERE l.partnerId = :partnerId " +
-           "AND l.requestTimestamp >= :since")
-    long countRequestsSince(Integer partnerId, LocalDateTime since);
-
-    @Query("SELECT AVG(l.responseTimeMs) FROM PartnerApiLog l WHERE l.partnerId = :partnerId " +
-           "AND l.requestTimestamp >= :since")
-    Double avgResponseTimeSince(Integer partnerId, LocalDateTime since);
-
-    @Query("SELECT l.endpoint, COUNT(l) FROM PartnerApiLog l WHERE l.partnerId = :partnerId " +
-           "AND l.requestTimestamp >= :since GROUP BY l.endpoint ORDER BY COUNT(l) DESC")
-    List<Object[]> topEndpointsSince(Integer partnerId, LocalDateTime since);
 }
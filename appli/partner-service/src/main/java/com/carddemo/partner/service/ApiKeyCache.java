@@ -0,0 +1,209 @@
+package com.carddemo.partner.service;
+
+import com.carddemo.partner.entity.Partner;
+import com.carddemo.partner.entity.PartnerApiKey;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * API Key Cache
+ *
+ * Validated API keys (partner, effective scopes and limits) keyed by key
+ * hash, so a partner API call costs no database round trip in the steady
+ * state. Unknown hashes are cached too (a new key is random, so no earlier
+ * lookup can have cached its absence), but in a separate, smaller cache with
+ * a short TTL: a flood of invalid keys must not evict the valid ones or pin
+ * memory for the full TTL.
+ *
+ * Entries are evicted after commit on key revocation and partner changes,
+ * locally and on every other node via the partner:api-key:invalidate channel.
+ * The TTL bounds staleness for rows changed outside partner-service.
+ */
+@Component
+@Slf4j
+public class ApiKeyCache implements MessageListener {
+
+    public static final String INVALIDATE_CHANNEL = "partner:api-key:invalidate";
+
+    private static final String KEY_MESSAGE = "key:";
+    private static final String PARTNER_MESSAGE = "partner:";
+
+    private final StringRedisTemplate redisTemplate;
+    private final Cache<String, CachedApiKey> cache;
+    private final Cache<String, Boolean> unknownKeys;
+
+    public ApiKeyCache(StringRedisTemplate redisTemplate,
+                       MeterRegistry meterRegistry,
+                       @Value("${partner.api.key-cache.maximum-size:10000}") long maximumSize,
+                       @Value("${partner.api.key-cache.ttl-seconds:300}") long ttlSeconds,
+                       @Value("${partner.api.key-cache.unknown-maximum-size:1000}") long unknownMaximumSize,
+                       @Value("${partner.api.key-cache.unknown-ttl-seconds:30}") long unknownTtlSeconds) {
+        this.redisTemplate = redisTemplate;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        this.unknownKeys = Caffeine.newBuilder()
+                .maximumSize(unknownMaximumSize)
+                .expireAfterWrite(Duration.ofSeconds(unknownTtlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "partner.api-keys");
+        CaffeineCacheMetrics.monitor(meterRegistry, unknownKeys, "partner.api-keys.unknown");
+    }
+
+    /**
+     * Cached key for a hash, loading it on a miss
+     */
+    public Optional<CachedApiKey> get(String keyHash, Function<String, Optional<CachedApiKey>> loader) {
+        if (unknownKeys.getIfPresent(keyHash) != null) {
+            return Optional.empty();
+        }
+        // Caffeine does not store a null result, so unknown hashes never reach the main cache
+        CachedApiKey key = cache.get(keyHash, hash -> loader.apply(hash).orElse(null));
+        if (key == null) {
+            unknownKeys.put(keyHash, Boolean.TRUE);
+        }
+        return Optional.ofNullable(key);
+    }
+
+    /**
+     * Cached key for a hash without loading (null unless cached as a known key)
+     */
+    public CachedApiKey getIfPresent(String keyHash) {
+        return cache.getIfPresent(keyHash);
+    }
+
+    /**
+     * Whether a hash is cached as matching no active key
+     */
+    public boolean isKnownUnknown(String keyHash) {
+        return unknownKeys.getIfPresent(keyHash) != null;
+    }
+
+    /**
+     * Drop one key (revocation)
+     */
+    public void evictKey(String keyHash) {
+        afterCommit(() -> {
+            invalidateKey(keyHash);
+            broadcast(KEY_MESSAGE + keyHash);
+        });
+    }
+
+    /**
+     * Drop every key of a partner (partner updated or deactivated)
+     */
+    public void evictPartner(Integer partnerId) {
+        afterCommit(() -> {
+            invalidatePartner(partnerId);
+            broadcast(PARTNER_MESSAGE + partnerId);
+        });
+    }
+
+    /**
+     * Invalidation published by any node (including this one)
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        if (body.startsWith(KEY_MESSAGE)) {
+            invalidateKey(body.substring(KEY_MESSAGE.length()));
+        } else if (body.startsWith(PARTNER_MESSAGE)) {
+            invalidatePartner(Integer.valueOf(body.substring(PARTNER_MESSAGE.length())));
+        }
+    }
+
+    private void invalidateKey(String keyHash) {
+        cache.invalidate(keyHash);
+        unknownKeys.invalidate(keyHash);
+    }
+
+    private void invalidatePartner(Integer partnerId) {
+        cache.asMap().values().removeIf(entry -> entry.partnerId().equals(partnerId));
+    }
+
+    private void broadcast(String message) {
+        try {
+            redisTemplate.convertAndSend(INVALIDATE_CHANNEL, message);
+        } catch (DataAccessException e) {
+            log.warn("Failed to broadcast API key cache invalidation '{}': {}", message, e.getMessage());
+        }
+    }
+
+    /**
+     * Evict once the change is visible, so a concurrent miss cannot reload the old row
+     */
+    private void afterCommit(Runnable eviction) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eviction.run();
+                }
+            });
+        } else {
+            eviction.run();
+        }
+    }
+
+    /**
+     * Snapshot of an active key and its partner
+     */
+    public record CachedApiKey(
+            Integer keyId,
+            Integer partnerId,
+            String partnerName,
+            String partnerType,
+            boolean partnerActive,
+            List<String> scopes,
+            Integer rateLimitPerMinute,
+            Integer dailyQuota,
+            String rateLimitAlgorithm,
+            Integer rateLimitBurst,
+            LocalDateTime expiresAt) {
+
+        public static CachedApiKey of(PartnerApiKey key) {
+            Partner partner = key.getPartner();
+            // Key scopes if set, otherwise the partner's allowed scopes
+            String[] effectiveScopes = key.getScopes() != null && key.getScopes().length > 0 ?
+                    key.getScopes() : partner.getAllowedScopes();
+            return new CachedApiKey(
+                    key.getKeyId(),
+                    partner.getPartnerId(),
+                    partner.getPartnerName(),
+                    partner.getPartnerType(),
+                    Boolean.TRUE.equals(partner.getIsActive()),
+                    effectiveScopes != null ? List.copyOf(Arrays.asList(effectiveScopes)) : List.of(),
+                    partner.getRateLimitPerMinute(),
+                    partner.getDailyQuota(),
+                    partner.getRateLimitAlgorithm(),
+                    partner.getRateLimitBurst(),
+                    key.getExpiresAt());
+        }
+
+        public boolean isExpired() {
+            return expiresAt != null && LocalDateTime.now().isAfter(expiresAt);
+        }
+    }
+}
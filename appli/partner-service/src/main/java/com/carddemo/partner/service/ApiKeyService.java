@@ -13,6 +13,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
@@ -21,7 +23,9 @@ import java.security.SecureRandom;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.Base64;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
@@ -31,8 +35,18 @@ public class ApiKeyService {
 
     private final PartnerRepository partnerRepository;
     private final PartnerApiKeyRepository apiKeyRepository;
+    private final ApiKeyCache apiKeyCache;
+    private final ApiKeyUsageTracker usageTracker;
     private final SecureRandom secureRandom = new SecureRandom();
 
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("SHA-256 algorithm not available", e);
+        }
+    });
+
     @Value("${partner.api.key-prefix:pk_live_}")
     private String keyPrefix;
 
@@ -101,18 +115,48 @@ public class ApiKeyService {
 
         apiKey.setIsActive(false);
         apiKeyRepository.save(apiKey);
+        apiKeyCache.evictKey(apiKey.getApiKeyHash());
         log.info("Revoked API key {} for partner {}", keyId, partnerId);
     }
 
-    @Transactional
+    /**
+     * Validate an API key - served from ApiKeyCache; the database is only read on a cache miss
+     */
     public ApiKeyValidationResponse validateApiKey(String apiKey) {
         if (apiKey == null || apiKey.isBlank()) {
             return ApiKeyValidationResponse.invalid("MISSING_API_KEY", "API key is required");
         }
 
+        return toValidation(apiKeyCache.get(hashApiKey(apiKey), this::loadKey));
+    }
+
+    /**
+     * Non-blocking validation for the gateway: a cache hit completes on the calling
+     * thread, a miss reads the database on the bounded elastic scheduler
+     */
+    public Mono<ApiKeyValidationResponse> validateApiKeyAsync(String apiKey) {
+        if (apiKey == null || apiKey.isBlank()) {
+            return Mono.just(ApiKeyValidationResponse.invalid("MISSING_API_KEY", "API key is required"));
+        }
+
         String keyHash = hashApiKey(apiKey);
-        PartnerApiKey key = apiKeyRepository.findByApiKeyHashAndIsActiveTrue(keyHash)
-                .orElse(null);
+        ApiKeyCache.CachedApiKey cached = apiKeyCache.getIfPresent(keyHash);
+        if (cached != null) {
+            return Mono.just(toValidation(Optional.of(cached)));
+        }
+        if (apiKeyCache.isKnownUnknown(keyHash)) {
+            return Mono.just(toValidation(Optional.empty()));
+        }
+        return Mono.fromCallable(() -> toValidation(apiKeyCache.get(keyHash, this::loadKey)))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private Optional<ApiKeyCache.CachedApiKey> loadKey(String keyHash) {
+        return apiKeyRepository.findByApiKeyHashAndIsActiveTrue(keyHash).map(ApiKeyCache.CachedApiKey::of);
+    }
+
+    private ApiKeyValidationResponse toValidation(Optional<ApiKeyCache.CachedApiKey> cached) {
+        ApiKeyCache.CachedApiKey key = cached.orElse(null);
 
         if (key == null) {
             return ApiKeyValidationResponse.invalid("INVALID_API_KEY", "API key is invalid or has been revoked");
@@ -122,26 +166,23 @@ public class ApiKeyService {
             return ApiKeyValidationResponse.invalid("EXPIRED_API_KEY", "API key has expired");
         }
 
-        Partner partner = key.getPartner();
-        if (!partner.getIsActive()) {
+        if (!key.partnerActive()) {
             return ApiKeyValidationResponse.invalid("PARTNER_INACTIVE", "Partner account is inactive");
         }
 
-        // Update last used timestamp
-        apiKeyRepository.updateLastUsedAt(key.getKeyId(), LocalDateTime.now());
-
-        // Determine effective scopes
-        String[] effectiveScopes = key.getScopes() != null && key.getScopes().length > 0 ?
-                key.getScopes() : partner.getAllowedScopes();
+        // Update last used timestamp (batched, see ApiKeyUsageTracker)
+        usageTracker.recordUse(key.keyId());
 
         return ApiKeyValidationResponse.builder()
                 .valid(true)
-                .partnerId(partner.getPartnerId())
-                .partnerName(partner.getPartnerName())
-                .partnerType(partner.getPartnerType())
-                .scopes(effectiveScopes != null ? Arrays.asList(effectiveScopes) : List.of())
-                .rateLimitPerMinute(partner.getRateLimitPerMinute())
-                .dailyQuota(partner.getDailyQuota())
+                .partnerId(key.partnerId())
+                .partnerName(key.partnerName())
+                .partnerType(key.partnerType())
+                .scopes(key.scopes())
+                .rateLimitPerMinute(key.rateLimitPerMinute())
+                .dailyQuota(key.dailyQuota())
+                .rateLimitAlgorithm(key.rateLimitAlgorithm())
+                .rateLimitBurst(key.rateLimitBurst())
                 .build();
     }
 
@@ -153,19 +194,8 @@ public class ApiKeyService {
     }
 
     private String hashApiKey(String apiKey) {
-        try {
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            byte[] hash = digest.digest(apiKey.getBytes(StandardCharsets.UTF_8));
-            StringBuilder hexString = new StringBuilder();
-            for (byte b : hash) {
-                String hex = Integer.toHexString(0xff & b);
-                if (hex.length() == 1) hexString.append('0');
-                hexString.append(hex);
-            }
-            return hexString.toString();
-        } catch (NoSuchAlgorithmException e) {
-            throw new RuntimeException("SHA-256 algorithm not available", e);
-        }
+        byte[] hash = SHA_256.get().digest(apiKey.getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().formatHex(hash);
     }
 
     private ApiKeyResponse toResponse(PartnerApiKey key, String fullKey) {
@@ -0,0 +1,71 @@
+package com.carddemo.partner.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * API Key Usage Tracker
+ *
+ * Collects last-used timestamps in memory and writes them in one JDBC batch
+ * per flush instead of an UPDATE per partner API call. last_used_at is
+ * therefore up to one flush interval behind; it is informational only.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ApiKeyUsageTracker {
+
+    private static final String UPDATE_LAST_USED_SQL =
+            "UPDATE partner_api_keys SET last_used_at = ? " +
+            "WHERE key_id = ? AND (last_used_at IS NULL OR last_used_at < ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Map<Integer, LocalDateTime> pending = new ConcurrentHashMap<>();
+
+    /**
+     * Record a use of the key (no I/O)
+     */
+    public void recordUse(Integer keyId) {
+        pending.put(keyId, LocalDateTime.now());
+    }
+
+    /**
+     * Write pending timestamps (default: every 30 seconds, and on shutdown)
+     */
+    @Scheduled(fixedDelayString = "${partner.api.last-used-flush-interval-ms:30000}")
+    @PreDestroy
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> batch = new ArrayList<>(pending.size());
+        for (Integer keyId : List.copyOf(pending.keySet())) {
+            LocalDateTime lastUsedAt = pending.remove(keyId);
+            if (lastUsedAt != null) {
+                Timestamp timestamp = Timestamp.valueOf(lastUsedAt);
+                batch.add(new Object[]{timestamp, keyId, timestamp});
+            }
+        }
+
+        try {
+            jdbcTemplate.batchUpdate(UPDATE_LAST_USED_SQL, batch);
+            log.debug("Flushed last-used timestamps for {} API keys", batch.size());
+        } catch (Exception e) {
+            // Informational column: drop this round rather than retrying stale values
+            log.warn("Failed to flush last-used timestamps for {} API keys: {}", batch.size(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.carddemo.partner.service;
+
+import com.carddemo.partner.entity.PartnerApiLog;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * API Log Writer
+ *
+ * Non-blocking pipeline for partner_api_logs (the audit trail that replaces
+ * SMF records). Request threads only offer the entry to a bounded ring
+ * buffer; a single background thread drains it and writes JDBC batch inserts.
+ *
+ * Back-pressure policy: the gateway never waits for the audit log. When the
+ * buffer is full the new entry is dropped and counted; a failed batch is
+ * dropped too rather than retried, so memory stays bounded while the
+ * database is slow or down. Quotas and daily usage do not depend on this
+ * table.
+ *
+ * Lifecycle: the writer starts before and stops after the embedded web
+ * server (see getPhase), so in-flight requests can still log during a
+ * graceful shutdown. Anything submitted once the final flush has begun is
+ * dropped and counted.
+ *
+ * Metrics:
+ *   partner.api.logs.queue                                            - entries waiting to be written
+ *   partner.api.logs.written                                          - entries inserted
+ *   partner.api.logs.dropped{reason=buffer_full|write_failed|stopped} - entries lost
+ */
+@Component
+@Slf4j
+public class ApiLogWriter implements SmartLifecycle {
+
+    private static final String INSERT_LOG_SQL =
+            "INSERT INTO partner_api_logs (partner_id, api_key_prefix, endpoint, method, status_code, " +
+            "response_time_ms, ip_address, user_agent, request_body_size, response_body_size, " +
+            "error_code, error_message, request_timestamp) " +
+            "VALUES (?, ?, ?, ?, ?, ?, CAST(? AS INET), ?, ?, ?, ?, ?, ?)";
+
+    private static final long POLL_TIMEOUT_MS = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BlockingQueue<PartnerApiLog> buffer;
+    private final int batchSize;
+
+    private final Counter writtenCounter;
+    private final Counter bufferFullCounter;
+    private final Counter writeFailedCounter;
+    private final Counter stoppedCounter;
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public ApiLogWriter(JdbcTemplate jdbcTemplate,
+                        MeterRegistry meterRegistry,
+                        @Value("${partner.api.log.buffer-size:10000}") int bufferSize,
+                        @Value("${partner.api.log.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        this.batchSize = batchSize;
+
+        Gauge.builder("partner.api.logs.queue", buffer, BlockingQueue::size)
+                .description("API log entries waiting to be written")
+                .register(meterRegistry);
+        this.writtenCounter = Counter.builder("partner.api.logs.written")
+                .description("API log entries inserted")
+                .register(meterRegistry);
+        this.bufferFullCounter = Counter.builder("partner.api.logs.dropped")
+                .description("API log entries dropped")
+                .tag("reason", "buffer_full")
+                .register(meterRegistry);
+        this.writeFailedCounter = Counter.builder("partner.api.logs.dropped")
+                .description("API log entries dropped")
+                .tag("reason", "write_failed")
+                .register(meterRegistry);
+        this.stoppedCounter = Counter.builder("partner.api.logs.dropped")
+                .description("API log entries dropped")
+                .tag("reason", "stopped")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queue an entry for writing (never blocks; drops the entry when the buffer is full or the writer has stopped)
+     */
+    public boolean submit(PartnerApiLog entry) {
+        if (!running) {
+            stoppedCounter.increment();
+            return false;
+        }
+        if (entry.getRequestTimestamp() == null) {
+            entry.setRequestTimestamp(LocalDateTime.now());
+        }
+        if (buffer.offer(entry)) {
+            return true;
+        }
+        bufferFullCounter.increment();
+        return false;
+    }
+
+    @Override
+    public void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        writer = new Thread(this::runWriter, "partner-api-log-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Stop the writer and flush what is still buffered
+     */
+    @Override
+    public void stop() {
+        running = false;
+        if (writer != null) {
+            try {
+                writer.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            writer = null;
+        }
+        List<PartnerApiLog> batch = new ArrayList<>(batchSize);
+        while (buffer.drainTo(batch, batchSize) > 0) {
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Below the web server's lifecycle phases, so the writer is stopped only after request handling has drained
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void runWriter() {
+        List<PartnerApiLog> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                PartnerApiLog first = buffer.poll(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                // Batches grow with load: one entry when idle, batchSize under pressure
+                batch.add(first);
+                buffer.drainTo(batch, batchSize - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<PartnerApiLog> batch) {
+        List<Object[]> rows = new ArrayList<>(batch.size());
+        for (PartnerApiLog entry : batch) {
+            rows.add(new Object[]{
+                    entry.getPartnerId(),
+                    entry.getApiKeyPrefix(),
+                    entry.getEndpoint(),
+                    entry.getMethod(),
+                    entry.getStatusCode(),
+                    entry.getResponseTimeMs(),
+                    entry.getIpAddress(),
+                    entry.getUserAgent(),
+                    entry.getRequestBodySize(),
+                    entry.getResponseBodySize(),
+                    entry.getErrorCode(),
+                    entry.getErrorMessage(),
+                    Timestamp.valueOf(entry.getRequestTimestamp())
+            });
+        }
+
+        try {
+            jdbcTemplate.batchUpdate(INSERT_LOG_SQL, rows);
+            writtenCounter.increment(rows.size());
+        } catch (Exception e) {
+            writeFailedCounter.increment(rows.size());
+            log.warn("Failed to write {} partner API log entries: {}", rows.size(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,313 @@
+package com.carddemo.partner.service;
+
+import com.carddemo.partner.service.RateLimitService.RateLimitResult;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Local Rate Limiter
+ *
+ * Pre-filter for high-volume FIXED_WINDOW and TOKEN_BUCKET partners. Each
+ * node leases a block of the partner's per-minute budget or bucket tokens
+ * (and daily quota) from Redis and serves requests from memory until it runs
+ * out, so Redis traffic scales with the number of nodes rather than with
+ * request volume. A denial is also kept locally until the window resets or
+ * the next token is due.
+ *
+ * Leased requests are charged up front, so the shared limit is never
+ * exceeded. A fixed-window lease ends with its window; up to one block per
+ * node can go unused then, and it is credited back to the daily quota
+ * asynchronously. A token-bucket lease lasts as long as the bucket takes to
+ * refill the block, and unused tokens go back to both the bucket and the
+ * daily quota. lease-fraction is the accuracy/throughput knob: bigger blocks
+ * mean fewer Redis calls and more requests held by each node.
+ */
+@Component
+@Slf4j
+public class LocalRateLimiter {
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static final RedisScript<List<Long>> LEASE_SCRIPT = (RedisScript) RedisScript.of(
+            new ClassPathResource("scripts/rate-limit-lease.lua"), List.class);
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static final RedisScript<List<Long>> TOKEN_BUCKET_LEASE_SCRIPT = (RedisScript) RedisScript.of(
+            new ClassPathResource("scripts/rate-limit-token-bucket-lease.lua"), List.class);
+
+    private static final RedisScript<Long> REFUND_SCRIPT = RedisScript.of(
+            new ClassPathResource("scripts/rate-limit-refund.lua"), Long.class);
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final boolean enabled;
+    private final int minLimitPerMinute;
+    private final double leaseFraction;
+    private final int windowSeconds;
+
+    private final Map<Integer, Lease> leases = new ConcurrentHashMap<>();
+    // Unused leased requests per daily counter key, credited back by reconcile()
+    private final Map<String, Long> pendingRefunds = new ConcurrentHashMap<>();
+    // Unused leased tokens per bucket key, returned by reconcile()
+    private final Map<String, Long> pendingBucketRefunds = new ConcurrentHashMap<>();
+
+    private final Counter leaseCounter;
+    private final Counter refundCounter;
+
+    public LocalRateLimiter(RedisTemplate<String, String> redisTemplate,
+                            MeterRegistry meterRegistry,
+                            @Value("${partner.api.local-limiter.enabled:true}") boolean enabled,
+                            @Value("${partner.api.local-limiter.min-limit-per-minute:1000}") int minLimitPerMinute,
+                            @Value("${partner.api.local-limiter.lease-fraction:0.05}") double leaseFraction,
+                            @Value("${partner.api.rate-limit-window-seconds:60}") int windowSeconds) {
+        this.redisTemplate = redisTemplate;
+        this.enabled = enabled;
+        this.minLimitPerMinute = minLimitPerMinute;
+        this.leaseFraction = leaseFraction;
+        this.windowSeconds = windowSeconds;
+        this.leaseCounter = Counter.builder("partner.ratelimit.local.leases")
+                .description("Blocks of requests leased from Redis")
+                .register(meterRegistry);
+        this.refundCounter = Counter.builder("partner.ratelimit.local.refunded")
+                .description("Leased requests returned unused")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Whether this partner's limit is served locally
+     *
+     * SLIDING_WINDOW is not leased. Its estimate carries the previous window's
+     * count into the next one, so a block left unused at a boundary would be
+     * weighted into the new window until reconcile() returns it. That is up to
+     * one block per node of phantom usage, right where the algorithm is meant
+     * to be most accurate.
+     */
+    public boolean handles(RateLimitService.Algorithm algorithm, int limitPerMinute) {
+        return enabled
+                && algorithm != RateLimitService.Algorithm.SLIDING_WINDOW
+                && limitPerMinute >= minLimitPerMinute;
+    }
+
+    /**
+     * Take one request from the local lease, leasing a new block when it is empty
+     */
+    public RateLimitResult tryAcquire(Integer partnerId, int limitPerMinute, int dailyQuota,
+                                      RateLimitService.Algorithm algorithm, int burstCapacity) {
+        return tryAcquire(partnerId, limitPerMinute, dailyQuota, algorithm, burstCapacity, true);
+    }
+
+    /**
+     * Take one request from the local lease without calling Redis or waiting
+     *
+     * Returns null when a new block is needed or another thread holds the
+     * lease (typically while it leases from Redis); the caller then falls back
+     * to tryAcquire off the request thread.
+     */
+    public RateLimitResult tryAcquireLocally(Integer partnerId, int limitPerMinute, int dailyQuota,
+                                             RateLimitService.Algorithm algorithm, int burstCapacity) {
+        return tryAcquire(partnerId, limitPerMinute, dailyQuota, algorithm, burstCapacity, false);
+    }
+
+    private RateLimitResult tryAcquire(Integer partnerId, int limitPerMinute, int dailyQuota,
+                                       RateLimitService.Algorithm algorithm, int burstCapacity, boolean mayLease) {
+        Lease lease;
+        while (true) {
+            lease = leases.computeIfAbsent(partnerId, id -> new Lease());
+
+            // Per-partner lock: concurrent callers wait for one lease instead of each calling Redis,
+            // except non-blocking callers, which never wait behind a Redis round trip
+            if (mayLease) {
+                lease.lock.lock();
+            } else if (!lease.lock.tryLock()) {
+                return null;
+            }
+            // reconcile() may have dropped this lease as idle while we waited; a block leased
+            // into it would never be refunded, so retry with the current mapping
+            if (leases.get(partnerId) == lease) {
+                break;
+            }
+            lease.lock.unlock();
+        }
+        try {
+            long now = System.currentTimeMillis();
+            lease.lastUsedAt = now;
+
+            // The partner's algorithm may have been changed since the block was leased
+            if (now >= lease.windowEndsAt || lease.algorithm != algorithm) {
+                releaseUnused(lease);
+                lease.deniedStatus = 0;
+            }
+
+            if (lease.deniedStatus != 0) {
+                return RateLimitService.toResult(lease.deniedStatus, 0, resetSeconds(lease, now),
+                        limitPerMinute, dailyQuota);
+            }
+
+            if (lease.tokens == 0) {
+                if (!mayLease) {
+                    return null;
+                }
+                acquireLease(partnerId, lease, limitPerMinute, dailyQuota, algorithm, burstCapacity, now);
+                if (lease.deniedStatus != 0) {
+                    return RateLimitService.toResult(lease.deniedStatus, 0, resetSeconds(lease, now),
+                            limitPerMinute, dailyQuota);
+                }
+            }
+
+            lease.tokens--;
+            return RateLimitService.toResult(0, lease.sharedRemaining + lease.tokens, resetSeconds(lease, now),
+                    limitPerMinute, dailyQuota);
+        } finally {
+            lease.lock.unlock();
+        }
+    }
+
+    /**
+     * Credit unused leases back to Redis (default: every 5 seconds)
+     *
+     * Also drops leases of partners idle for a full window.
+     */
+    @Scheduled(fixedDelayString = "${partner.api.local-limiter.reconcile-interval-ms:5000}")
+    public void reconcile() {
+        long now = System.currentTimeMillis();
+        long idleAfter = windowSeconds * 1000L;
+
+        leases.forEach((partnerId, lease) -> {
+            lease.lock.lock();
+            try {
+                if (now >= lease.windowEndsAt) {
+                    releaseUnused(lease);
+                    if (now - lease.lastUsedAt > idleAfter) {
+                        leases.remove(partnerId, lease);
+                    }
+                }
+            } finally {
+                lease.lock.unlock();
+            }
+        });
+
+        for (String bucketKey : List.copyOf(pendingBucketRefunds.keySet())) {
+            Long amount = pendingBucketRefunds.remove(bucketKey);
+            if (amount != null) {
+                refund(List.of(bucketKey), List.of(amount), 0);
+            }
+        }
+        for (String dailyKey : List.copyOf(pendingRefunds.keySet())) {
+            Long amount = pendingRefunds.remove(dailyKey);
+            if (amount != null) {
+                refund(List.of(dailyKey), List.of(amount), amount);
+            }
+        }
+    }
+
+    /**
+     * Return every outstanding lease, including the current window's, on shutdown
+     */
+    @PreDestroy
+    public void releaseAll() {
+        leases.forEach((partnerId, lease) -> {
+            lease.lock.lock();
+            try {
+                if (lease.tokens > 0 && System.currentTimeMillis() < lease.windowEndsAt) {
+                    refund(List.of(lease.limitKey, lease.dailyKey), List.of(lease.tokens, lease.tokens), lease.tokens);
+                    lease.tokens = 0;
+                } else {
+                    releaseUnused(lease);
+                }
+            } finally {
+                lease.lock.unlock();
+            }
+        });
+        leases.clear();
+        reconcile();
+    }
+
+    private void acquireLease(Integer partnerId, Lease lease, int limitPerMinute, int dailyQuota,
+                              RateLimitService.Algorithm algorithm, int burstCapacity, long now) {
+        long blockSize = Math.max(1, (long) Math.ceil(limitPerMinute * leaseFraction));
+        String limitKey = RateLimitService.limitKey(algorithm, partnerId);
+        String dailyKey = RateLimitService.dailyQuotaKey(partnerId);
+
+        List<Long> result;
+        if (algorithm == RateLimitService.Algorithm.TOKEN_BUCKET) {
+            result = redisTemplate.execute(TOKEN_BUCKET_LEASE_SCRIPT,
+                    List.of(limitKey, dailyKey),
+                    String.valueOf(limitPerMinute),
+                    String.valueOf(dailyQuota),
+                    String.valueOf(windowSeconds),
+                    String.valueOf(RateLimitService.DAILY_QUOTA_TTL.toSeconds()),
+                    String.valueOf(burstCapacity),
+                    String.valueOf(blockSize));
+        } else {
+            result = redisTemplate.execute(LEASE_SCRIPT,
+                    List.of(limitKey, dailyKey),
+                    String.valueOf(limitPerMinute),
+                    String.valueOf(dailyQuota),
+                    String.valueOf(windowSeconds),
+                    String.valueOf(RateLimitService.DAILY_QUOTA_TTL.toSeconds()),
+                    String.valueOf(blockSize));
+        }
+        leaseCounter.increment();
+
+        lease.deniedStatus = result.get(0);
+        lease.tokens = result.get(1);
+        lease.windowEndsAt = now + result.get(2) * 1000;
+        lease.sharedRemaining = result.get(3);
+        lease.algorithm = algorithm;
+        lease.limitKey = limitKey;
+        lease.dailyKey = dailyKey;
+    }
+
+    private void releaseUnused(Lease lease) {
+        if (lease.tokens > 0) {
+            // An ended minute window no longer counts the block; a bucket takes its tokens back
+            if (lease.algorithm == RateLimitService.Algorithm.TOKEN_BUCKET) {
+                pendingBucketRefunds.merge(lease.limitKey, lease.tokens, Long::sum);
+            }
+            pendingRefunds.merge(lease.dailyKey, lease.tokens, Long::sum);
+            lease.tokens = 0;
+        }
+    }
+
+    private void refund(List<String> keys, List<Long> amounts, long requests) {
+        try {
+            redisTemplate.execute(REFUND_SCRIPT, keys,
+                    amounts.stream().map(String::valueOf).toArray(Object[]::new));
+            refundCounter.increment(requests);
+        } catch (Exception e) {
+            // Stranded requests only make the limit stricter; never retry into a later window
+            log.warn("Failed to return {} unused leased requests for {}: {}",
+                    amounts.get(amounts.size() - 1), keys, e.getMessage());
+        }
+    }
+
+    private static long resetSeconds(Lease lease, long now) {
+        return Math.max(0, (long) Math.ceil((lease.windowEndsAt - now) / 1000.0));
+    }
+
+    /**
+     * This node's share of one partner's current window (guarded by its own lock)
+     */
+    private static final class Lease {
+        final ReentrantLock lock = new ReentrantLock();
+        long tokens;
+        long sharedRemaining;
+        long windowEndsAt;
+        long deniedStatus;
+        long lastUsedAt;
+        RateLimitService.Algorithm algorithm;
+        String limitKey;
+        String dailyKey;
+    }
+}
@@ -22,6 +22,7 @@ public class PartnerService {
 
     private final PartnerRepository partnerRepository;
     private final PartnerApiKeyRepository apiKeyRepository;
+    private final ApiKeyCache apiKeyCache;
 
     @Transactional
     public PartnerResponse createPartner(PartnerRequest request) {
@@ -43,6 +44,8 @@ public class PartnerService {
                         request.getAllowedScopes().toArray(new String[0]) : new String[]{"accounts:read", "transactions:read"})
                 .rateLimitPerMinute(request.getRateLimitPerMinute() != null ? request.getRateLimitPerMinute() : 60)
                 .dailyQuota(request.getDailyQuota() != null ? request.getDailyQuota() : 10000)
+                .rateLimitAlgorithm(request.getRateLimitAlgorithm() != null ? request.getRateLimitAlgorithm() : "FIXED_WINDOW")
+                .rateLimitBurst(request.getRateLimitBurst())
                 .isActive(true)
                 .build();
 
@@ -103,8 +106,15 @@ public class PartnerService {
         if (request.getDailyQuota() != null) {
             partner.setDailyQuota(request.getDailyQuota());
         }
+        if (request.getRateLimitAlgorithm() != null) {
+            partner.setRateLimitAlgorithm(request.getRateLimitAlgorithm());
+        }
+        if (request.getRateLimitBurst() != null) {
+            partner.setRateLimitBurst(request.getRateLimitBurst());
+        }
 
         partner = partnerRepository.save(partner);
+        apiKeyCache.evictPartner(partner.getPartnerId());
         log.info("Updated partner: {} (ID: {})", partner.getPartnerName(), partner.getPartnerId());
 
         return toResponse(partner);
@@ -117,6 +127,7 @@ public class PartnerService {
 
         partner.setIsActive(false);
         partnerRepository.save(partner);
+        apiKeyCache.evictPartner(partnerId);
         log.info("Deactivated partner: {} (ID: {})", partner.getPartnerName(), partner.getPartnerId());
     }
 
@@ -143,6 +154,8 @@ public class PartnerService {
                         Arrays.asList(partner.getAllowedScopes()) : List.of())
                 .rateLimitPerMinute(partner.getRateLimitPerMinute())
                 .dailyQuota(partner.getDailyQuota())
+                .rateLimitAlgorithm(partner.getRateLimitAlgorithm())
+                .rateLimitBurst(partner.getRateLimitBurst())
                 .isActive(partner.getIsActive())
                 .createdAt(partner.getCreatedAt())
                 .updatedAt(partner.getUpdatedAt())
@@ -1,17 +1,20 @@
 package com.carddemo.partner.service;
 
-import com.carddemo.partner.entity.PartnerDailyUsage;
-import com.carddemo.partner.repository.PartnerDailyUsageRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 import java.time.Duration;
 import java.time.LocalDate;
-import java.util.concurrent.TimeUnit;
+import java.util.List;
 
 @Service
 @RequiredArgsConstructor
@@ -19,7 +22,9 @@ import java.util.concurrent.TimeUnit;
 public class RateLimitService {
 
     private final RedisTemplate<String, String> redisTemplate;
-    private final PartnerDailyUsageRepository dailyUsageRepository;
+    private final ReactiveStringRedisTemplate reactiveRedisTemplate;
+    private final UsageRecorder usageRecorder;
+    private final LocalRateLimiter localRateLimiter;
 
     @Value("${partner.api.rate-limit-window-seconds:60}")
     private int rateLimitWindowSeconds;
@@ -27,148 +32,219 @@ public class RateLimitService {
     private static final String RATE_LIMIT_KEY_PREFIX = "partner:ratelimit:";
     private static final String DAILY_QUOTA_KEY_PREFIX = "partner:dailyquota:";
 
+    // Daily counters outlive the day slightly so a late request never recreates an expired key
+    static final Duration DAILY_QUOTA_TTL = Duration.ofHours(25);
+
+    private static final long STATUS_RATE_LIMITED = 1;
+    private static final long STATUS_QUOTA_EXCEEDED = 2;
+
     /**
-     * Check if the partner has exceeded their rate limit (requests per minute)
+     * Per-partner rate limit algorithm (partners.rate_limit_algorithm)
+     *
+     * All scripts take the same KEYS/ARGV layout and return { status, remaining, resetSeconds }.
      */
-    public boolean isRateLimited(Integer partnerId, int limitPerMinute) {
-        String key = RATE_LIMIT_KEY_PREFIX + partnerId;
+    public enum Algorithm {
+        FIXED_WINDOW("scripts/rate-limit.lua", RATE_LIMIT_KEY_PREFIX),
+        SLIDING_WINDOW("scripts/rate-limit-sliding-window.lua", RATE_LIMIT_KEY_PREFIX + "sw:"),
+        TOKEN_BUCKET("scripts/rate-limit-token-bucket.lua", RATE_LIMIT_KEY_PREFIX + "tb:");
 
-        Long currentCount = redisTemplate.opsForValue().increment(key);
-        if (currentCount == null) {
-            currentCount = 1L;
-        }
+        private final RedisScript<List<Long>> script;
+        private final String keyPrefix;
 
-        // Set expiry on first request
-        if (currentCount == 1) {
-            redisTemplate.expire(key, Duration.ofSeconds(rateLimitWindowSeconds));
+        @SuppressWarnings({"rawtypes", "unchecked"})
+        Algorithm(String scriptPath, String keyPrefix) {
+            this.script = (RedisScript) RedisScript.of(new ClassPathResource(scriptPath), List.class);
+            this.keyPrefix = keyPrefix;
         }
 
-        return currentCount > limitPerMinute;
+        /**
+         * Resolve a stored code (unknown or missing codes fall back to FIXED_WINDOW)
+         */
+        public static Algorithm fromCode(String code) {
+            if (code != null) {
+                for (Algorithm algorithm : values()) {
+                    if (algorithm.name().equalsIgnoreCase(code)) {
+                        return algorithm;
+                    }
+                }
+            }
+            return FIXED_WINDOW;
+        }
     }
 
     /**
-     * Get remaining requests in current window
+     * Most requests the algorithm allows at once: the burst capacity for TOKEN_BUCKET, the limit otherwise
      */
-    public long getRemainingRequests(Integer partnerId, int limitPerMinute) {
-        String key = RATE_LIMIT_KEY_PREFIX + partnerId;
-        String value = redisTemplate.opsForValue().get(key);
+    public static long getCapacity(int limitPerMinute, Algorithm algorithm, Integer burst) {
+        return algorithm == Algorithm.TOKEN_BUCKET ? burstCapacity(limitPerMinute, burst) : limitPerMinute;
+    }
 
-        if (value == null) {
-            return limitPerMinute;
-        }
+    /**
+     * Get remaining requests in current window (read-only estimate, uses the local clock)
+     */
+    public long getRemainingRequests(Integer partnerId, int limitPerMinute, Algorithm algorithm, Integer burst) {
+        String key = algorithm.keyPrefix + partnerId;
+        long nowMs = System.currentTimeMillis();
+        long windowMs = rateLimitWindowSeconds * 1000L;
 
-        long used = Long.parseLong(value);
-        return Math.max(0, limitPerMinute - used);
+        return switch (algorithm) {
+            case FIXED_WINDOW -> {
+                String value = redisTemplate.opsForValue().get(key);
+                yield value == null ? limitPerMinute : Math.max(0, limitPerMinute - Long.parseLong(value));
+            }
+            case SLIDING_WINDOW -> {
+                long index = nowMs / windowMs;
+                List<String> counts = redisTemplate.opsForValue().multiGet(
+                        List.of(key + ":" + (index - 1), key + ":" + index));
+                long previous = parseCount(counts.get(0));
+                long current = parseCount(counts.get(1));
+                double weight = (double) (windowMs - (nowMs - index * windowMs)) / windowMs;
+                yield Math.max(0, limitPerMinute - (long) (previous * weight) - current);
+            }
+            case TOKEN_BUCKET -> {
+                int capacity = burstCapacity(limitPerMinute, burst);
+                List<Object> bucket = redisTemplate.opsForHash().multiGet(key, List.of("tokens", "ts"));
+                if (bucket.get(0) == null || bucket.get(1) == null) {
+                    yield capacity;
+                }
+                double tokens = Double.parseDouble((String) bucket.get(0))
+                        + Math.max(0, nowMs - Long.parseLong((String) bucket.get(1)))
+                        * ((double) limitPerMinute / windowMs);
+                yield (long) Math.min(capacity, tokens);
+            }
+        };
     }
 
     /**
-     * Get time until rate limit resets (in seconds)
+     * Get current daily usage
      */
-    public long getResetTimeSeconds(Integer partnerId) {
-        String key = RATE_LIMIT_KEY_PREFIX + partnerId;
-        Long ttl = redisTemplate.getExpire(key, TimeUnit.SECONDS);
-        return ttl != null && ttl > 0 ? ttl : rateLimitWindowSeconds;
+    public long getDailyUsage(Integer partnerId) {
+        String value = redisTemplate.opsForValue().get(dailyQuotaKey(partnerId));
+        return value != null ? Long.parseLong(value) : 0;
     }
 
     /**
-     * Check if the partner has exceeded their daily quota
+     * Record usage for historical tracking (buffered, see UsageRecorder)
      */
-    public boolean isDailyQuotaExceeded(Integer partnerId, int dailyQuota) {
-        String key = DAILY_QUOTA_KEY_PREFIX + partnerId + ":" + LocalDate.now();
-
-        String value = redisTemplate.opsForValue().get(key);
-        if (value == null) {
-            return false;
-        }
-
-        return Long.parseLong(value) >= dailyQuota;
+    public void recordUsage(Integer partnerId, boolean success) {
+        usageRecorder.record(partnerId, success);
     }
 
     /**
-     * Increment daily usage counter
+     * Combined rate limit check (per-minute window, then daily quota)
+     *
+     * Runs as one Lua script: a single Redis round trip, and the counters
+     * always get their TTL atomically with the first increment.
+     *
+     * FIXED_WINDOW counts per fixed window; SLIDING_WINDOW weights the
+     * previous window to avoid double bursts at the boundary; TOKEN_BUCKET
+     * refills continuously and allows bursts up to {@code burst} (default: the limit).
      */
-    public void incrementDailyUsage(Integer partnerId) {
-        String key = DAILY_QUOTA_KEY_PREFIX + partnerId + ":" + LocalDate.now();
+    public RateLimitResult checkRateLimit(Integer partnerId, int limitPerMinute, int dailyQuota,
+                                          Algorithm algorithm, Integer burst) {
+        if (localRateLimiter.handles(algorithm, limitPerMinute)) {
+            // High-volume partner: served from this node's lease (see LocalRateLimiter)
+            return localRateLimiter.tryAcquire(partnerId, limitPerMinute, dailyQuota,
+                    algorithm, burstCapacity(limitPerMinute, burst));
+        }
 
-        Long currentCount = redisTemplate.opsForValue().increment(key);
+        List<Long> result = redisTemplate.execute(algorithm.script,
+                List.of(algorithm.keyPrefix + partnerId, dailyQuotaKey(partnerId)),
+                scriptArgs(limitPerMinute, dailyQuota, burst).toArray());
 
-        // Set expiry at midnight (24 hours from now as a safe default)
-        if (currentCount != null && currentCount == 1) {
-            redisTemplate.expire(key, Duration.ofHours(25));
-        }
+        return toResult(result.get(0), result.get(1), result.get(2), limitPerMinute, dailyQuota);
     }
 
     /**
-     * Get current daily usage
+     * Non-blocking variant of checkRateLimit for the gateway
+     *
+     * Uses the reactive Redis client; a local lease is served in memory, and
+     * only taking a new block (once per block), or waiting for another thread
+     * that is taking one, runs on the bounded elastic scheduler.
      */
-    public long getDailyUsage(Integer partnerId) {
-        String key = DAILY_QUOTA_KEY_PREFIX + partnerId + ":" + LocalDate.now();
-        String value = redisTemplate.opsForValue().get(key);
-        return value != null ? Long.parseLong(value) : 0;
+    public Mono<RateLimitResult> checkRateLimitAsync(Integer partnerId, int limitPerMinute, int dailyQuota,
+                                                     Algorithm algorithm, Integer burst) {
+        if (localRateLimiter.handles(algorithm, limitPerMinute)) {
+            int capacity = burstCapacity(limitPerMinute, burst);
+            RateLimitResult local = localRateLimiter.tryAcquireLocally(partnerId, limitPerMinute, dailyQuota,
+                    algorithm, capacity);
+            if (local != null) {
+                return Mono.just(local);
+            }
+            return Mono.fromCallable(() -> localRateLimiter.tryAcquire(partnerId, limitPerMinute, dailyQuota,
+                            algorithm, capacity))
+                    .subscribeOn(Schedulers.boundedElastic());
+        }
+
+        @SuppressWarnings({"rawtypes", "unchecked"})
+        Flux<Object> reply = (Flux) reactiveRedisTemplate.execute(algorithm.script,
+                List.of(algorithm.keyPrefix + partnerId, dailyQuotaKey(partnerId)),
+                scriptArgs(limitPerMinute, dailyQuota, burst));
+
+        // The array reply may arrive as one List or element by element depending on the driver
+        return reply.flatMapIterable(value -> value instanceof List<?> values ? values : List.of(value))
+                .map(value -> ((Number) value).longValue())
+                .collectList()
+                .map(result -> toResult(result.get(0), result.get(1), result.get(2), limitPerMinute, dailyQuota));
     }
 
     /**
-     * Record usage in database for historical tracking
+     * ARGV shared by all rate limit scripts
      */
-    @Transactional
-    public void recordUsage(Integer partnerId, boolean success) {
-        LocalDate today = LocalDate.now();
-
-        // Try to update existing record
-        int updated = dailyUsageRepository.incrementUsage(
-                partnerId,
-                today,
-                success ? 1 : 0,
-                success ? 0 : 1
-        );
-
-        // If no record exists, create one
-        if (updated == 0) {
-            PartnerDailyUsage usage = PartnerDailyUsage.builder()
-                    .partnerId(partnerId)
-                    .usageDate(today)
-                    .requestCount(1)
-                    .successfulCount(success ? 1 : 0)
-                    .failedCount(success ? 0 : 1)
-                    .build();
-            dailyUsageRepository.save(usage);
-        }
+    private List<String> scriptArgs(int limitPerMinute, int dailyQuota, Integer burst) {
+        return List.of(
+                String.valueOf(limitPerMinute),
+                String.valueOf(dailyQuota),
+                String.valueOf(rateLimitWindowSeconds),
+                String.valueOf(DAILY_QUOTA_TTL.toSeconds()),
+                String.valueOf(burstCapacity(limitPerMinute, burst)));
     }
 
     /**
-     * Combined rate limit check - returns null if OK, error message if limited
+     * Map a script's { status, remaining, resetSeconds } to a result
      */
-    public RateLimitResult checkRateLimit(Integer partnerId, int limitPerMinute, int dailyQuota) {
-        // Check rate limit first
-        if (isRateLimited(partnerId, limitPerMinute)) {
-            long retryAfter = getResetTimeSeconds(partnerId);
+    static RateLimitResult toResult(long status, long remaining, long resetSeconds, int limitPerMinute, int dailyQuota) {
+        if (status == STATUS_RATE_LIMITED) {
             return new RateLimitResult(
                     true,
                     "RATE_LIMIT_EXCEEDED",
-                    String.format("Rate limit exceeded. Try again in %d seconds.", retryAfter),
-                    retryAfter,
+                    String.format("Rate limit exceeded. Try again in %d seconds.", resetSeconds),
+                    resetSeconds,
                     limitPerMinute,
-                    0
+                    0,
+                    resetSeconds
             );
         }
 
-        // Check daily quota
-        if (isDailyQuotaExceeded(partnerId, dailyQuota)) {
+        if (status == STATUS_QUOTA_EXCEEDED) {
             return new RateLimitResult(
                     true,
                     "DAILY_QUOTA_EXCEEDED",
                     "Daily quota exceeded. Try again tomorrow.",
                     0,
                     dailyQuota,
-                    0
+                    0,
+                    resetSeconds
             );
         }
 
-        // Increment counters
-        incrementDailyUsage(partnerId);
+        return new RateLimitResult(false, null, null, 0, limitPerMinute, remaining, resetSeconds);
+    }
+
+    private static int burstCapacity(int limitPerMinute, Integer burst) {
+        return burst != null && burst > 0 ? burst : limitPerMinute;
+    }
+
+    private static long parseCount(String value) {
+        return value != null ? Long.parseLong(value) : 0;
+    }
+
+    static String limitKey(Algorithm algorithm, Integer partnerId) {
+        return algorithm.keyPrefix + partnerId;
+    }
 
-        long remaining = getRemainingRequests(partnerId, limitPerMinute);
-        return new RateLimitResult(false, null, null, 0, limitPerMinute, remaining);
+    static String dailyQuotaKey(Integer partnerId) {
+        return DAILY_QUOTA_KEY_PREFIX + partnerId + ":" + LocalDate.now();
     }
 
     public record RateLimitResult(
@@ -177,6 +253,7 @@ public class RateLimitService {
             String message,
             long retryAfterSeconds,
             int limit,
-            long remaining
+            long remaining,
+            long resetSeconds
     ) {}
 }
@@ -0,0 +1,151 @@
+package com.carddemo.partner.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Usage Recorder
+ *
+ * Buffers partner_daily_usage increments in striped in-memory counters and
+ * writes them as one batched upsert per flush, instead of a transactional
+ * UPDATE/INSERT on the partner's daily row for every proxied request.
+ * Flushes run every flush interval, as soon as flush-threshold events are
+ * pending, and on shutdown. Daily usage in the database is therefore up to
+ * one flush behind; quota enforcement uses the Redis counters, not this table.
+ */
+@Component
+@Slf4j
+public class UsageRecorder {
+
+    private static final String UPSERT_USAGE_SQL =
+            "INSERT INTO partner_daily_usage (partner_id, usage_date, request_count, successful_count, failed_count) " +
+            "VALUES (?, ?, ?, ?, ?) " +
+            "ON CONFLICT (partner_id, usage_date) DO UPDATE SET " +
+            "request_count = partner_daily_usage.request_count + EXCLUDED.request_count, " +
+            "successful_count = partner_daily_usage.successful_count + EXCLUDED.successful_count, " +
+            "failed_count = partner_daily_usage.failed_count + EXCLUDED.failed_count";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long flushThreshold;
+
+    private final Map<UsageKey, UsageCounts> pending = new ConcurrentHashMap<>();
+    private final AtomicLong pendingEvents = new AtomicLong();
+    private final AtomicBoolean flushQueued = new AtomicBoolean();
+    private final ExecutorService flushExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "partner-usage-flush");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public UsageRecorder(JdbcTemplate jdbcTemplate,
+                         @Value("${partner.api.usage-flush-threshold:1000}") long flushThreshold) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.flushThreshold = flushThreshold;
+    }
+
+    /**
+     * Count one request for today (no I/O)
+     */
+    public void record(Integer partnerId, boolean success) {
+        UsageCounts counts = pending.computeIfAbsent(new UsageKey(partnerId, LocalDate.now()), k -> new UsageCounts());
+        (success ? counts.successful : counts.failed).increment();
+
+        if (pendingEvents.incrementAndGet() >= flushThreshold && flushQueued.compareAndSet(false, true)) {
+            flushExecutor.execute(() -> {
+                flushQueued.set(false);
+                flush();
+            });
+        }
+    }
+
+    /**
+     * Write pending counts (default: every 5 seconds)
+     */
+    @Scheduled(fixedDelayString = "${partner.api.usage-flush-interval-ms:5000}")
+    public synchronized void flush() {
+        pendingEvents.set(0);
+        LocalDate today = LocalDate.now();
+
+        List<Object[]> batch = new ArrayList<>();
+        List<Runnable> restore = new ArrayList<>();
+
+        // Sorted so concurrent flushes from several nodes lock rows in the same order
+        List<Map.Entry<UsageKey, UsageCounts>> entries = new ArrayList<>(pending.entrySet());
+        entries.sort(Map.Entry.comparingByKey(
+                Comparator.comparing(UsageKey::partnerId).thenComparing(UsageKey::usageDate)));
+
+        for (Map.Entry<UsageKey, UsageCounts> entry : entries) {
+            UsageKey key = entry.getKey();
+            UsageCounts counts = entry.getValue();
+
+            // Subtract exactly what is written: increments racing with the flush stay pending
+            long successful = counts.successful.sum();
+            long failed = counts.failed.sum();
+            if (successful == 0 && failed == 0) {
+                // Drop finished days once no request can still be counting into them
+                if (key.usageDate().isBefore(today.minusDays(1))) {
+                    pending.remove(key, counts);
+                }
+                continue;
+            }
+            counts.successful.add(-successful);
+            counts.failed.add(-failed);
+
+            batch.add(new Object[]{key.partnerId(), Date.valueOf(key.usageDate()),
+                    successful + failed, successful, failed});
+            restore.add(() -> {
+                counts.successful.add(successful);
+                counts.failed.add(failed);
+            });
+        }
+
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            jdbcTemplate.batchUpdate(UPSERT_USAGE_SQL, batch);
+            log.debug("Flushed daily usage for {} partner/day rows", batch.size());
+        } catch (Exception e) {
+            // Usage history must not be lost: keep the counts for the next flush
+            restore.forEach(Runnable::run);
+            log.warn("Failed to flush daily usage for {} partner/day rows, will retry: {}",
+                    batch.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * Write whatever is still pending on shutdown
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        flushExecutor.shutdown();
+        flushExecutor.awaitTermination(10, TimeUnit.SECONDS);
+        flush();
+    }
+
+    private record UsageKey(Integer partnerId, LocalDate usageDate) {}
+
+    private static final class UsageCounts {
+        final LongAdder successful = new LongAdder();
+        final LongAdder failed = new LongAdder();
+    }
+}
@@ -0,0 +1,341 @@
+package com.carddemo.partner.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Usage Rollup Service
+ *
+ * Maintains partner_usage_rollups: request count, error count, latency sum
+ * and a fixed-bucket latency histogram per partner, endpoint and minute/hour.
+ * Requests are aggregated in memory and upserted in one batch per flush, so
+ * the usage dashboard reads O(buckets) rows instead of scanning
+ * partner_api_logs, and gets p50/p95/p99 as well as the average.
+ *
+ * Percentiles are interpolated within histogram buckets, so they are
+ * estimates bounded by the bucket edges (see LATENCY_BOUNDS_MS).
+ *
+ * Replaces: SMF record post-processing for partner API reporting
+ */
+@Service
+@Slf4j
+public class UsageRollupService {
+
+    /** Upper bounds (ms) of the histogram buckets; one more bucket holds everything slower */
+    static final long[] LATENCY_BOUNDS_MS = {1, 2, 5, 10, 20, 50, 100, 200, 500, 1000, 2000, 5000, 10000};
+
+    private static final String MINUTE = "MINUTE";
+    private static final String HOUR = "HOUR";
+
+    private static final String UPSERT_ROLLUP_SQL =
+            "INSERT INTO partner_usage_rollups (partner_id, granularity, bucket_start, endpoint, " +
+            "request_count, error_count, latency_sum_ms, latency_histogram) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, CAST(? AS BIGINT[])) " +
+            "ON CONFLICT (partner_id, granularity, bucket_start, endpoint) DO UPDATE SET " +
+            "request_count = partner_usage_rollups.request_count + EXCLUDED.request_count, " +
+            "error_count = partner_usage_rollups.error_count + EXCLUDED.error_count, " +
+            "latency_sum_ms = partner_usage_rollups.latency_sum_ms + EXCLUDED.latency_sum_ms, " +
+            "latency_histogram = (SELECT array_agg(COALESCE(a, 0) + COALESCE(b, 0) ORDER BY n) " +
+            "FROM unnest(partner_usage_rollups.latency_histogram, EXCLUDED.latency_histogram) " +
+            "WITH ORDINALITY AS h(a, b, n))";
+
+    private static final String ENDPOINT_TOTALS_SQL =
+            "SELECT endpoint, SUM(request_count), SUM(error_count), SUM(latency_sum_ms) " +
+            "FROM partner_usage_rollups " +
+            "WHERE partner_id = ? AND granularity = ? AND bucket_start >= ? " +
+            "GROUP BY endpoint ORDER BY SUM(request_count) DESC";
+
+    private static final String HISTOGRAM_SQL =
+            "SELECT h.n, SUM(h.c) FROM partner_usage_rollups r, " +
+            "unnest(r.latency_histogram) WITH ORDINALITY AS h(c, n) " +
+            "WHERE r.partner_id = ? AND r.granularity = ? AND r.bucket_start >= ? " +
+            "GROUP BY h.n";
+
+    private static final String PURGE_SQL =
+            "DELETE FROM partner_usage_rollups WHERE granularity = ? AND bucket_start < ?";
+
+    private static final int TOP_ENDPOINTS = 5;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long minuteRetentionHours;
+    private final long hourRetentionDays;
+
+    private final Map<MinuteKey, Accumulator> pending = new ConcurrentHashMap<>();
+
+    public UsageRollupService(JdbcTemplate jdbcTemplate,
+                              @Value("${partner.api.rollup.minute-retention-hours:48}") long minuteRetentionHours,
+                              @Value("${partner.api.rollup.hour-retention-days:400}") long hourRetentionDays) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.minuteRetentionHours = minuteRetentionHours;
+        this.hourRetentionDays = hourRetentionDays;
+    }
+
+    /**
+     * Count one completed request (no I/O)
+     */
+    public void record(Integer partnerId, String endpoint, int statusCode, long latencyMs) {
+        if (partnerId == null || endpoint == null) {
+            return;
+        }
+        MinuteKey key = new MinuteKey(partnerId, endpoint, LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES));
+        Accumulator accumulator = pending.computeIfAbsent(key, k -> new Accumulator());
+
+        accumulator.histogram.incrementAndGet(bucketOf(latencyMs));
+        accumulator.latencySum.add(latencyMs);
+        if (statusCode < 200 || statusCode >= 300) {
+            accumulator.errors.increment();
+        }
+        accumulator.requests.increment();
+    }
+
+    /**
+     * Upsert pending minute and hour rollups (default: every 10 seconds)
+     */
+    @Scheduled(fixedDelayString = "${partner.api.rollup.flush-interval-ms:10000}")
+    public synchronized void flush() {
+        LocalDateTime idleBefore = LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES).minusMinutes(2);
+
+        // Minute deltas, merged into their hour row as well; sorted for a stable lock order across nodes
+        Map<RowKey, long[]> rows = new TreeMap<>(RowKey.ORDER);
+        List<Runnable> restore = new ArrayList<>();
+
+        for (Map.Entry<MinuteKey, Accumulator> entry : pending.entrySet()) {
+            MinuteKey key = entry.getKey();
+            Accumulator accumulator = entry.getValue();
+
+            // Subtract exactly what is written: requests racing with the flush stay pending
+            long[] delta = accumulator.drain();
+            if (delta == null) {
+                if (key.minute().isBefore(idleBefore)) {
+                    pending.remove(key, accumulator);
+                }
+                continue;
+            }
+            restore.add(() -> accumulator.add(delta));
+
+            merge(rows, new RowKey(key.partnerId(), MINUTE, key.minute(), key.endpoint()), delta);
+            merge(rows, new RowKey(key.partnerId(), HOUR, key.minute().truncatedTo(ChronoUnit.HOURS),
+                    key.endpoint()), delta);
+        }
+
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> batch = new ArrayList<>(rows.size());
+        rows.forEach((row, values) -> batch.add(new Object[]{
+                row.partnerId(), row.granularity(), Timestamp.valueOf(row.bucketStart()), row.endpoint(),
+                values[0], values[1], values[2], toArrayLiteral(values)}));
+
+        try {
+            jdbcTemplate.batchUpdate(UPSERT_ROLLUP_SQL, batch);
+            log.debug("Flushed {} partner usage rollup rows", batch.size());
+        } catch (Exception e) {
+            // Keep the deltas for the next flush rather than losing dashboard data
+            restore.forEach(Runnable::run);
+            log.warn("Failed to flush {} partner usage rollup rows, will retry: {}", batch.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * Write whatever is still pending on shutdown
+     */
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    /**
+     * Drop expired rollups (default: every hour)
+     */
+    @Scheduled(initialDelayString = "${partner.api.rollup.purge-interval-ms:3600000}",
+            fixedDelayString = "${partner.api.rollup.purge-interval-ms:3600000}")
+    public void purge() {
+        LocalDateTime now = LocalDateTime.now();
+        int minutes = jdbcTemplate.update(PURGE_SQL, MINUTE, Timestamp.valueOf(now.minusHours(minuteRetentionHours)));
+        int hours = jdbcTemplate.update(PURGE_SQL, HOUR, Timestamp.valueOf(now.minusDays(hourRetentionDays)));
+        if (minutes > 0 || hours > 0) {
+            log.info("Purged partner usage rollups: {} minute rows, {} hour rows", minutes, hours);
+        }
+    }
+
+    /**
+     * Usage since the given time from hourly rollups (includes the current, partial hour)
+     */
+    public UsageSummary summarizeHourly(Integer partnerId, LocalDateTime since) {
+        return summarize(partnerId, HOUR, since.truncatedTo(ChronoUnit.HOURS));
+    }
+
+    /**
+     * Usage since the given time from minute rollups (kept for minute-retention-hours)
+     */
+    public UsageSummary summarizeByMinute(Integer partnerId, LocalDateTime since) {
+        return summarize(partnerId, MINUTE, since.truncatedTo(ChronoUnit.MINUTES));
+    }
+
+    private UsageSummary summarize(Integer partnerId, String granularity, LocalDateTime since) {
+        Timestamp from = Timestamp.valueOf(since);
+
+        Map<String, Long> endpointCounts = new LinkedHashMap<>();
+        long[] totals = new long[3];
+        jdbcTemplate.query(ENDPOINT_TOTALS_SQL, rs -> {
+            long requests = rs.getLong(2);
+            endpointCounts.put(rs.getString(1), requests);
+            totals[0] += requests;
+            totals[1] += rs.getLong(3);
+            totals[2] += rs.getLong(4);
+        }, partnerId, granularity, from);
+
+        long[] histogram = new long[LATENCY_BOUNDS_MS.length + 1];
+        jdbcTemplate.query(HISTOGRAM_SQL, rs -> {
+            int index = rs.getInt(1) - 1;
+            if (index >= 0 && index < histogram.length) {
+                histogram[index] = rs.getLong(2);
+            }
+        }, partnerId, granularity, from);
+
+        long requests = totals[0];
+        return new UsageSummary(
+                requests,
+                totals[1],
+                requests > 0 ? (double) totals[2] / requests : null,
+                percentile(histogram, 0.50),
+                percentile(histogram, 0.95),
+                percentile(histogram, 0.99),
+                endpointCounts.entrySet().stream()
+                        .limit(TOP_ENDPOINTS)
+                        .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue,
+                                (a, b) -> a, LinkedHashMap::new)));
+    }
+
+    /**
+     * Latency at quantile q, interpolated linearly within its bucket (null without data)
+     */
+    static Double percentile(long[] histogram, double q) {
+        long total = Arrays.stream(histogram).sum();
+        if (total == 0) {
+            return null;
+        }
+        double rank = q * total;
+        long cumulative = 0;
+        for (int i = 0; i < histogram.length; i++) {
+            long count = histogram[i];
+            if (count > 0 && cumulative + count >= rank) {
+                double lower = i == 0 ? 0 : LATENCY_BOUNDS_MS[i - 1];
+                if (i == LATENCY_BOUNDS_MS.length) {
+                    return lower; // overflow bucket has no upper edge
+                }
+                return lower + (LATENCY_BOUNDS_MS[i] - lower) * (rank - cumulative) / count;
+            }
+            cumulative += count;
+        }
+        return (double) LATENCY_BOUNDS_MS[LATENCY_BOUNDS_MS.length - 1];
+    }
+
+    static int bucketOf(long latencyMs) {
+        for (int i = 0; i < LATENCY_BOUNDS_MS.length; i++) {
+            if (latencyMs <= LATENCY_BOUNDS_MS[i]) {
+                return i;
+            }
+        }
+        return LATENCY_BOUNDS_MS.length;
+    }
+
+    private static void merge(Map<RowKey, long[]> rows, RowKey key, long[] delta) {
+        long[] values = rows.computeIfAbsent(key, k -> new long[delta.length]);
+        for (int i = 0; i < delta.length; i++) {
+            values[i] += delta[i];
+        }
+    }
+
+    private static String toArrayLiteral(long[] values) {
+        return Arrays.stream(values, 3, values.length)
+                .mapToObj(Long::toString)
+                .collect(Collectors.joining(",", "{", "}"));
+    }
+
+    /**
+     * Aggregated usage over a time range
+     */
+    public record UsageSummary(
+            long totalRequests,
+            long errorRequests,
+            Double avgResponseTimeMs,
+            Double p50ResponseTimeMs,
+            Double p95ResponseTimeMs,
+            Double p99ResponseTimeMs,
+            Map<String, Long> topEndpoints
+    ) {}
+
+    private record MinuteKey(Integer partnerId, String endpoint, LocalDateTime minute) {}
+
+    private record RowKey(Integer partnerId, String granularity, LocalDateTime bucketStart, String endpoint) {
+        static final Comparator<RowKey> ORDER = Comparator.comparing(RowKey::partnerId)
+                .thenComparing(RowKey::granularity)
+                .thenComparing(RowKey::bucketStart)
+                .thenComparing(RowKey::endpoint);
+    }
+
+    /**
+     * One partner/endpoint/minute: { requests, errors, latencySum, histogram... } once drained
+     */
+    private static final class Accumulator {
+        final LongAdder requests = new LongAdder();
+        final LongAdder errors = new LongAdder();
+        final LongAdder latencySum = new LongAdder();
+        final AtomicLongArray histogram = new AtomicLongArray(LATENCY_BOUNDS_MS.length + 1);
+
+        /**
+         * Take the current counts (null when there is nothing to write)
+         */
+        long[] drain() {
+            long[] delta = new long[3 + histogram.length()];
+            delta[0] = requests.sum();
+            delta[1] = errors.sum();
+            delta[2] = latencySum.sum();
+            boolean empty = delta[0] == 0;
+            for (int i = 0; i < histogram.length(); i++) {
+                delta[3 + i] = histogram.get(i);
+                empty &= delta[3 + i] == 0;
+            }
+            if (empty && delta[1] == 0 && delta[2] == 0) {
+                return null;
+            }
+            requests.add(-delta[0]);
+            errors.add(-delta[1]);
+            latencySum.add(-delta[2]);
+            for (int i = 0; i < histogram.length(); i++) {
+                histogram.addAndGet(i, -delta[3 + i]);
+            }
+            return delta;
+        }
+
+        void add(long[] delta) {
+            requests.add(delta[0]);
+            errors.add(delta[1]);
+            latencySum.add(delta[2]);
+            for (int i = 0; i < histogram.length(); i++) {
+                histogram.addAndGet(i, delta[3 + i]);
+            }
+        }
+    }
+}
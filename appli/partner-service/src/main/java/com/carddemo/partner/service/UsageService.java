@@ -4,7 +4,6 @@ import com.carddemo.partner.dto.UsageResponse;
 import com.carddemo.partner.entity.Partner;
 import com.carddemo.partner.entity.PartnerDailyUsage;
 import com.carddemo.partner.exception.PartnerException;
-import com.carddemo.partner.repository.PartnerApiLogRepository;
 import com.carddemo.partner.repository.PartnerDailyUsageRepository;
 import com.carddemo.partner.repository.PartnerRepository;
 import lombok.RequiredArgsConstructor;
@@ -14,9 +13,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -26,7 +23,7 @@ public class UsageService {
 
     private final PartnerRepository partnerRepository;
     private final PartnerDailyUsageRepository dailyUsageRepository;
-    private final PartnerApiLogRepository apiLogRepository;
+    private final UsageRollupService usageRollupService;
     private final RateLimitService rateLimitService;
 
     @Transactional(readOnly = true)
@@ -52,21 +49,19 @@ public class UsageService {
                 .collect(Collectors.toList());
 
         // Get real-time stats from Redis
-        long requestsThisMinute = partner.getRateLimitPerMinute() -
-                rateLimitService.getRemainingRequests(partnerId, partner.getRateLimitPerMinute());
+        // Consumed = capacity minus what is left (for TOKEN_BUCKET the capacity is the burst, not the limit)
+        RateLimitService.Algorithm algorithm = RateLimitService.Algorithm.fromCode(partner.getRateLimitAlgorithm());
+        long requestsThisMinute = Math.max(0,
+                RateLimitService.getCapacity(partner.getRateLimitPerMinute(), algorithm, partner.getRateLimitBurst())
+                        - rateLimitService.getRemainingRequests(partnerId, partner.getRateLimitPerMinute(),
+                                algorithm, partner.getRateLimitBurst()));
         long requestsToday = rateLimitService.getDailyUsage(partnerId);
         long remainingToday = Math.max(0, partner.getDailyQuota() - requestsToday);
 
-        // Get average response time
-        Double avgResponseTime = apiLogRepository.avgResponseTimeSince(partnerId, since);
-
-        // Get top endpoints
-        List<Object[]> topEndpointsRaw = apiLogRepository.topEndpointsSince(partnerId, since);
-        Map<String, Long> topEndpoints = new LinkedHashMap<>();
-        for (Object[] row : topEndpointsRaw) {
-            if (topEndpoints.size() >= 5) break;
-            topEndpoints.put((String) row[0], (Long) row[1]);
-        }
+        // Latency and endpoint stats from the rollups (O(buckets), no log scan)
+        UsageRollupService.UsageSummary window = usageRollupService.summarizeHourly(partnerId, since);
+        UsageRollupService.UsageSummary lastHour =
+                usageRollupService.summarizeByMinute(partnerId, LocalDateTime.now().minusHours(1));
 
         return UsageResponse.builder()
                 .partnerId(partnerId)
@@ -76,8 +71,18 @@ public class UsageService {
                 .requestsThisMinute(requestsThisMinute)
                 .requestsToday(requestsToday)
                 .remainingToday(remainingToday)
-                .avgResponseTimeMs(avgResponseTime)
-                .topEndpoints(topEndpoints)
+                .errorRequests(window.errorRequests())
+                .avgResponseTimeMs(window.avgResponseTimeMs())
+                .p50ResponseTimeMs(window.p50ResponseTimeMs())
+                .p95ResponseTimeMs(window.p95ResponseTimeMs())
+                .p99ResponseTimeMs(window.p99ResponseTimeMs())
+                .topEndpoints(window.topEndpoints())
+                .lastHour(UsageResponse.RecentUsage.builder()
+                        .totalRequests(lastHour.totalRequests())
+                        .errorRequests(lastHour.errorRequests())
+                        .avgResponseTimeMs(lastHour.avgResponseTimeMs())
+                        .p95ResponseTimeMs(lastHour.p95ResponseTimeMs())
+                        .build())
                 .dailyUsage(dailyBreakdown)
                 .build();
     }
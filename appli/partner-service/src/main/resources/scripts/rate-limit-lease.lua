@@ -0,0 +1,51 @@
+-- Lease a block of requests from a partner's fixed window and daily quota
+--
+-- Used by LocalRateLimiter: the node serves the granted requests from memory
+-- and comes back only when they run out, so Redis sees one call per block
+-- instead of one per request. Leased requests count as used immediately.
+--
+-- KEYS[1]  per-minute counter   partner:ratelimit:{partnerId}
+-- KEYS[2]  daily counter        partner:dailyquota:{partnerId}:{date}
+-- ARGV[1]  requests per minute
+-- ARGV[2]  daily quota
+-- ARGV[3]  window length (seconds)
+-- ARGV[4]  daily counter TTL (seconds)
+-- ARGV[5]  requested block size
+--
+-- Returns { status, granted, resetSeconds, remaining }
+--   status: 0 = granted, 1 = rate limit exceeded, 2 = daily quota exceeded
+--   remaining: requests left in the shared window after this grant
+
+local limit = tonumber(ARGV[1])
+local quota = tonumber(ARGV[2])
+local window = tonumber(ARGV[3])
+
+local count = tonumber(redis.call('GET', KEYS[1]) or '0')
+local ttl = redis.call('TTL', KEYS[1])
+
+if count >= limit then
+    if ttl < 0 then
+        redis.call('EXPIRE', KEYS[1], window)
+        ttl = window
+    end
+    return { 1, 0, ttl, 0 }
+end
+
+local used = tonumber(redis.call('GET', KEYS[2]) or '0')
+if used >= quota then
+    return { 2, 0, ttl < 0 and window or ttl, 0 }
+end
+
+local granted = math.min(tonumber(ARGV[5]), limit - count, quota - used)
+
+count = redis.call('INCRBY', KEYS[1], granted)
+if ttl < 0 then
+    redis.call('EXPIRE', KEYS[1], window)
+    ttl = window
+end
+
+if redis.call('INCRBY', KEYS[2], granted) == granted then
+    redis.call('EXPIRE', KEYS[2], tonumber(ARGV[4]))
+end
+
+return { 0, granted, ttl, limit - count }
@@ -0,0 +1,22 @@
+-- Return unused leased requests to their counters (LocalRateLimiter reconciliation)
+--
+-- KEYS[n]  counter or token bucket to credit (skipped once expired, so no key is recreated without TTL)
+-- ARGV[n]  amount to give back
+--
+-- Counters are decremented; a token bucket gets the tokens back (the refill
+-- in rate-limit-token-bucket.lua caps it at capacity on the next read).
+--
+-- Returns the number of keys credited
+
+local credited = 0
+for i, key in ipairs(KEYS) do
+    if redis.call('EXISTS', key) == 1 then
+        if redis.call('TYPE', key).ok == 'hash' then
+            redis.call('HINCRBYFLOAT', key, 'tokens', tonumber(ARGV[i]))
+        else
+            redis.call('DECRBY', key, tonumber(ARGV[i]))
+        end
+        credited = credited + 1
+    end
+end
+return credited
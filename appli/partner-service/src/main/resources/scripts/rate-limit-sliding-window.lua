@@ -0,0 +1,61 @@
+-- Partner rate limit check (sliding window counter + daily quota) in one round trip
+--
+-- Approximates a sliding window with two fixed windows: the previous window's
+-- count is weighted by how much of it still overlaps the sliding window.
+-- Window boundaries come from the Redis clock so every node agrees.
+--
+-- KEYS[1]  window counter prefix  partner:ratelimit:sw:{partnerId}  (suffixed with :{windowIndex})
+-- KEYS[2]  daily counter          partner:dailyquota:{partnerId}:{date}
+-- ARGV[1]  requests per window
+-- ARGV[2]  daily quota
+-- ARGV[3]  window length (seconds)
+-- ARGV[4]  daily counter TTL (seconds)
+--
+-- Returns { status, remaining, resetSeconds }
+--   status: 0 = allowed, 1 = rate limit exceeded, 2 = daily quota exceeded
+
+local limit = tonumber(ARGV[1])
+local quota = tonumber(ARGV[2])
+local window = tonumber(ARGV[3])
+
+local time = redis.call('TIME')
+local nowMs = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+local windowMs = window * 1000
+local index = math.floor(nowMs / windowMs)
+local elapsed = nowMs - index * windowMs
+
+local currentKey = KEYS[1] .. ':' .. index
+local previous = tonumber(redis.call('GET', KEYS[1] .. ':' .. (index - 1)) or '0')
+local current = tonumber(redis.call('GET', currentKey) or '0')
+local weight = (windowMs - elapsed) / windowMs
+local estimated = math.floor(previous * weight) + current
+
+if estimated >= limit then
+    -- Time until the weighted count drops below the limit
+    local waitMs
+    if current < limit and previous > 0 then
+        waitMs = windowMs * (1 - (limit - 1 - current) / previous) - elapsed
+    else
+        -- This window is full: wait for the next one, where it becomes the weighted previous
+        waitMs = windowMs - elapsed + windowMs * math.max(0, 1 - (limit - 1) / math.max(current, 1))
+    end
+    return { 1, 0, math.max(1, math.ceil(waitMs / 1000)) }
+end
+
+local resetSeconds = math.ceil((windowMs - elapsed) / 1000)
+
+local used = tonumber(redis.call('GET', KEYS[2]) or '0')
+if used >= quota then
+    return { 2, 0, resetSeconds }
+end
+
+if redis.call('INCR', KEYS[2]) == 1 then
+    redis.call('EXPIRE', KEYS[2], tonumber(ARGV[4]))
+end
+
+-- Counters are read for one more window as the weighted previous count
+if redis.call('INCR', currentKey) == 1 then
+    redis.call('EXPIRE', currentKey, window * 2)
+end
+
+return { 0, math.max(0, limit - estimated - 1), resetSeconds }
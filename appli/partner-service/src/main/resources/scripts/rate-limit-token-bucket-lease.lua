@@ -0,0 +1,58 @@
+-- Lease a block of tokens from a partner's token bucket and daily quota
+--
+-- Token bucket counterpart of rate-limit-lease.lua, used by LocalRateLimiter.
+-- Leased tokens leave the bucket immediately. On a grant, resetSeconds is the
+-- time the bucket needs to refill the block: the node serves it for that long
+-- and then hands back whatever it did not use.
+--
+-- KEYS[1]  bucket hash    partner:ratelimit:tb:{partnerId}  (fields: tokens, ts)
+-- KEYS[2]  daily counter  partner:dailyquota:{partnerId}:{date}
+-- ARGV[1]  requests per window (refill rate)
+-- ARGV[2]  daily quota
+-- ARGV[3]  window length (seconds)
+-- ARGV[4]  daily counter TTL (seconds)
+-- ARGV[5]  bucket capacity (burst)
+-- ARGV[6]  requested block size
+--
+-- Returns { status, granted, resetSeconds, remaining }
+--   status: 0 = granted, 1 = rate limit exceeded, 2 = daily quota exceeded
+--   remaining: whole tokens left in the bucket after this grant
+
+local limit = tonumber(ARGV[1])
+local quota = tonumber(ARGV[2])
+local window = tonumber(ARGV[3])
+local capacity = tonumber(ARGV[5])
+
+local time = redis.call('TIME')
+local nowMs = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+local ratePerMs = limit / (window * 1000)
+
+local bucket = redis.call('HMGET', KEYS[1], 'tokens', 'ts')
+local tokens = tonumber(bucket[1])
+local ts = tonumber(bucket[2])
+if tokens == nil or ts == nil then
+    tokens = capacity
+    ts = nowMs
+end
+tokens = math.min(capacity, tokens + math.max(0, nowMs - ts) * ratePerMs)
+
+if tokens < 1 then
+    return { 1, 0, math.max(1, math.ceil((1 - tokens) / ratePerMs / 1000)), 0 }
+end
+
+local used = tonumber(redis.call('GET', KEYS[2]) or '0')
+if used >= quota then
+    return { 2, 0, window, 0 }
+end
+
+local granted = math.min(tonumber(ARGV[6]), math.floor(tokens), quota - used)
+
+tokens = tokens - granted
+redis.call('HSET', KEYS[1], 'tokens', tostring(tokens), 'ts', tostring(nowMs))
+redis.call('PEXPIRE', KEYS[1], math.ceil(capacity / ratePerMs) + 1000)
+
+if redis.call('INCRBY', KEYS[2], granted) == granted then
+    redis.call('EXPIRE', KEYS[2], tonumber(ARGV[4]))
+end
+
+return { 0, granted, math.max(1, math.ceil(granted / ratePerMs / 1000)), math.floor(tokens) }
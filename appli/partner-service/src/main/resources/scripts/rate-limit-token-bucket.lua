@@ -0,0 +1,57 @@
+-- Partner rate limit check (token bucket + daily quota) in one round trip
+--
+-- The bucket refills continuously at ARGV[1] tokens per window and holds up
+-- to ARGV[5] tokens, so an idle partner can burst above the steady rate.
+-- Refill uses the Redis clock so every node agrees.
+--
+-- KEYS[1]  bucket hash    partner:ratelimit:tb:{partnerId}  (fields: tokens, ts)
+-- KEYS[2]  daily counter  partner:dailyquota:{partnerId}:{date}
+-- ARGV[1]  requests per window (refill rate)
+-- ARGV[2]  daily quota
+-- ARGV[3]  window length (seconds)
+-- ARGV[4]  daily counter TTL (seconds)
+-- ARGV[5]  bucket capacity (burst)
+--
+-- Returns { status, remaining, resetSeconds }
+--   status: 0 = allowed, 1 = rate limit exceeded, 2 = daily quota exceeded
+--   resetSeconds: until the next token (limited) or until the bucket is full again
+
+local limit = tonumber(ARGV[1])
+local quota = tonumber(ARGV[2])
+local window = tonumber(ARGV[3])
+local capacity = tonumber(ARGV[5])
+
+local time = redis.call('TIME')
+local nowMs = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+local ratePerMs = limit / (window * 1000)
+
+local bucket = redis.call('HMGET', KEYS[1], 'tokens', 'ts')
+local tokens = tonumber(bucket[1])
+local ts = tonumber(bucket[2])
+if tokens == nil or ts == nil then
+    -- New (or expired) bucket starts full
+    tokens = capacity
+    ts = nowMs
+end
+tokens = math.min(capacity, tokens + math.max(0, nowMs - ts) * ratePerMs)
+
+if tokens < 1 then
+    -- State is left untouched: the refill is recomputed from the stored timestamp
+    return { 1, 0, math.max(1, math.ceil((1 - tokens) / ratePerMs / 1000)) }
+end
+
+local used = tonumber(redis.call('GET', KEYS[2]) or '0')
+if used >= quota then
+    return { 2, math.floor(tokens), math.ceil((capacity - tokens) / ratePerMs / 1000) }
+end
+
+if redis.call('INCR', KEYS[2]) == 1 then
+    redis.call('EXPIRE', KEYS[2], tonumber(ARGV[4]))
+end
+
+tokens = tokens - 1
+redis.call('HSET', KEYS[1], 'tokens', tostring(tokens), 'ts', tostring(nowMs))
+-- A bucket idle long enough to refill completely is equivalent to a missing one
+redis.call('PEXPIRE', KEYS[1], math.ceil(capacity / ratePerMs) + 1000)
+
+return { 0, math.floor(tokens), math.ceil((capacity - tokens) / ratePerMs / 1000) }
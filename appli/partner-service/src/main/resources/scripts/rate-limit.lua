@@ -0,0 +1,38 @@
+-- Partner rate limit check (per-minute window + daily quota) in one round trip
+--
+-- KEYS[1]  per-minute counter   partner:ratelimit:{partnerId}
+-- KEYS[2]  daily counter        partner:dailyquota:{partnerId}:{date}
+-- ARGV[1]  requests per minute
+-- ARGV[2]  daily quota
+-- ARGV[3]  window length (seconds)
+-- ARGV[4]  daily counter TTL (seconds)
+--
+-- Returns { status, remaining, resetSeconds }
+--   status: 0 = allowed, 1 = rate limit exceeded, 2 = daily quota exceeded
+
+local limit = tonumber(ARGV[1])
+local quota = tonumber(ARGV[2])
+local window = tonumber(ARGV[3])
+
+local count = redis.call('INCR', KEYS[1])
+local ttl = redis.call('TTL', KEYS[1])
+if ttl < 0 then
+    -- First hit of the window (or a counter left without TTL): start the window
+    redis.call('EXPIRE', KEYS[1], window)
+    ttl = window
+end
+
+if count > limit then
+    return { 1, 0, ttl }
+end
+
+local used = tonumber(redis.call('GET', KEYS[2]) or '0')
+if used >= quota then
+    return { 2, 0, ttl }
+end
+
+if redis.call('INCR', KEYS[2]) == 1 then
+    redis.call('EXPIRE', KEYS[2], tonumber(ARGV[4]))
+end
+
+return { 0, limit - count, ttl }
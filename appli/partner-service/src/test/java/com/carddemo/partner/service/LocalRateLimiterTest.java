@@ -0,0 +1,125 @@
+package com.carddemo.partner.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static com.carddemo.partner.service.RateLimitService.Algorithm.FIXED_WINDOW;
+import static com.carddemo.partner.service.RateLimitService.Algorithm.TOKEN_BUCKET;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class LocalRateLimiterTest {
+
+    private static final int PARTNER_ID = 7;
+    private static final int LIMIT = 1000;
+    private static final int DAILY_QUOTA = 100000;
+    private static final long BLOCK = 50;
+
+    /** "key=amount" of every refund script call */
+    private final List<String> refunds = new ArrayList<>();
+    /** Limit key of every lease script call */
+    private final List<String> leasedKeys = new ArrayList<>();
+
+    private RedisTemplate<String, String> redisTemplate;
+    private LocalRateLimiter limiter;
+    /** Seconds until the leased window or block ends */
+    private long leaseTtlSeconds;
+    private CountDownLatch leaseStarted;
+    private CountDownLatch leaseRelease;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        redisTemplate = mock(RedisTemplate.class);
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class))).thenAnswer(invocation -> {
+            List<String> keys = invocation.getArgument(1);
+            Object[] args = (Object[]) invocation.getRawArguments()[2];
+            if (args.length == 1) {
+                refunds.add(keys.get(0) + "=" + args[0]);
+                return 0L;
+            }
+            leasedKeys.add(keys.get(0));
+            if (leaseStarted != null) {
+                leaseStarted.countDown();
+                leaseRelease.await(5, TimeUnit.SECONDS);
+            }
+            return List.of(0L, BLOCK, leaseTtlSeconds, (long) LIMIT - BLOCK);
+        });
+        limiter = new LocalRateLimiter(redisTemplate, new SimpleMeterRegistry(), true, 1000, 0.05, 60);
+        leaseTtlSeconds = 60;
+    }
+
+    @Test
+    void expiredFixedWindowLeaseCreditsOnlyTheDailyQuota() {
+        leaseTtlSeconds = 0;
+        acquire(FIXED_WINDOW);
+
+        limiter.reconcile();
+
+        assertEquals(List.of(RateLimitService.dailyQuotaKey(PARTNER_ID) + "=" + (BLOCK - 1)), refunds);
+    }
+
+    @Test
+    void expiredTokenBucketLeaseCreditsTheBucketAndDailyQuota() {
+        leaseTtlSeconds = 0;
+        acquire(TOKEN_BUCKET);
+
+        limiter.reconcile();
+
+        assertEquals(List.of(
+                RateLimitService.limitKey(TOKEN_BUCKET, PARTNER_ID) + "=" + (BLOCK - 1),
+                RateLimitService.dailyQuotaKey(PARTNER_ID) + "=" + (BLOCK - 1)), refunds);
+    }
+
+    @Test
+    void algorithmChangeReleasesTheLeasedBlock() {
+        acquire(FIXED_WINDOW);
+        acquire(TOKEN_BUCKET);
+
+        assertEquals(List.of(
+                RateLimitService.limitKey(FIXED_WINDOW, PARTNER_ID),
+                RateLimitService.limitKey(TOKEN_BUCKET, PARTNER_ID)), leasedKeys);
+
+        // Only the abandoned fixed-window block is returned; the new bucket lease is still live
+        limiter.reconcile();
+
+        assertEquals(List.of(RateLimitService.dailyQuotaKey(PARTNER_ID) + "=" + (BLOCK - 1)), refunds);
+    }
+
+    @Test
+    void tryAcquireLocallyDoesNotWaitForALeaseInProgress() throws Exception {
+        leaseStarted = new CountDownLatch(1);
+        leaseRelease = new CountDownLatch(1);
+        CompletableFuture<RateLimitService.RateLimitResult> leasing =
+                CompletableFuture.supplyAsync(() -> limiter.tryAcquire(PARTNER_ID, LIMIT, DAILY_QUOTA, FIXED_WINDOW, LIMIT));
+        assertTrue(leaseStarted.await(5, TimeUnit.SECONDS));
+
+        assertNull(limiter.tryAcquireLocally(PARTNER_ID, LIMIT, DAILY_QUOTA, FIXED_WINDOW, LIMIT));
+
+        leaseRelease.countDown();
+        assertFalse(leasing.get(5, TimeUnit.SECONDS).limited());
+        assertNotNull(limiter.tryAcquireLocally(PARTNER_ID, LIMIT, DAILY_QUOTA, FIXED_WINDOW, LIMIT));
+    }
+
+    private void acquire(RateLimitService.Algorithm algorithm) {
+        RateLimitService.RateLimitResult result =
+                limiter.tryAcquire(PARTNER_ID, LIMIT, DAILY_QUOTA, algorithm, LIMIT);
+        assertFalse(result.limited());
+    }
+}
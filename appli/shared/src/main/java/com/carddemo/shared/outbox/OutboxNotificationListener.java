@@ -0,0 +1,74 @@
+package com.carddemo.shared.outbox;
+
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Outbox Notification Listener
+ *
+ * Holds a dedicated connection that LISTENs on the outbox table's channel
+ * (fed by the notify_outbox_insert trigger) and wakes the relay as soon as
+ * an insert commits. Reconnects after connection loss.
+ *
+ * The data source must not be pooled: the session is held for the relay's
+ * lifetime and closing it is what ends the LISTEN.
+ */
+@Slf4j
+class OutboxNotificationListener implements Runnable {
+
+    private static final int RECEIVE_TIMEOUT_MS = 1000;
+
+    private final String channel;
+    private final DataSource dataSource;
+    private final OutboxRelay relay;
+    private final long reconnectDelayMs;
+
+    OutboxNotificationListener(String channel, DataSource dataSource, OutboxRelay relay, long reconnectDelayMs) {
+        this.channel = channel;
+        this.dataSource = dataSource;
+        this.relay = relay;
+        this.reconnectDelayMs = reconnectDelayMs;
+    }
+
+    @Override
+    public void run() {
+        while (relay.isRunning()) {
+            try (Connection connection = dataSource.getConnection()) {
+                connection.setAutoCommit(true);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                log.info("Listening for outbox notifications: channel={}", channel);
+
+                // Catch up on anything committed before LISTEN took effect
+                relay.wakeup();
+
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (relay.isRunning()) {
+                    PGNotification[] notifications = pgConnection.getNotifications(RECEIVE_TIMEOUT_MS);
+                    if (notifications != null && notifications.length > 0) {
+                        relay.wakeup();
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                // Driver and unwrap failures surface unchecked; either way the thread must survive and reconnect
+                if (!relay.isRunning()) {
+                    return;
+                }
+                log.warn("Outbox listener connection lost: channel={}, error={}", channel, e.toString());
+                try {
+                    Thread.sleep(reconnectDelayMs);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,404 @@
+package com.carddemo.shared.outbox;
+
+import com.carddemo.shared.event.DomainEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Array;
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Outbox Relay
+ *
+ * Drains an outbox table (id, aggregate_id, payload, status, created_at,
+ * published_at) to a Kafka topic. Shared by every service that uses the
+ * Outbox Pattern.
+ *
+ * Each worker loops: claim a batch of PENDING rows with FOR UPDATE SKIP
+ * LOCKED, send them as one pipelined burst, wait for the acks and mark the
+ * batch with a single UPDATE, all in one DB transaction (so a pooled
+ * connection is held for up to sendTimeoutMs per batch). A full batch is
+ * followed immediately by the next one; an empty poll doubles the delay up
+ * to maxPollIntervalMs. With listenEnabled, a LISTEN connection on the
+ * table's channel wakes the workers as soon as an insert commits and the
+ * timer only acts as a fallback. The LISTEN session is held for the
+ * relay's lifetime, so it is opened from listenDataSource (unpooled) rather
+ * than taken from the application's connection pool.
+ *
+ * A purge worker deletes PUBLISHED rows older than retentionHours in
+ * batches of purgeBatchSize, so claim cost does not grow with history.
+ *
+ * Metrics (tag "outbox" = relay name):
+ *   outbox.relay.published / outbox.relay.failed  - event counters
+ *   outbox.relay.batch                            - batch round-trip time
+ *   outbox.relay.publish.latency                  - row creation to Kafka ack
+ *   outbox.relay.lag                              - age of oldest row in last batch (ms)
+ *   outbox.relay.purged                           - rows removed by the retention purge
+ *
+ * Replaces: CICS triggered transaction patterns for MQ message dispatch
+ */
+@Slf4j
+public class OutboxRelay implements SmartLifecycle {
+
+    private final String name;
+    private final String table;
+    private final String topic;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final DataSource listenDataSource;
+    private final KafkaTemplate<String, DomainEvent> kafkaTemplate;
+    private final ObjectMapper objectMapper;
+    private final OutboxRelayProperties properties;
+
+    private final String claimSql;
+    private final String markPublishedSql;
+    private final String markFailedSql;
+    private final String purgeSql;
+
+    private final Counter publishedCounter;
+    private final Counter sendFailedCounter;
+    private final Counter serializationFailedCounter;
+    private final Counter purgedCounter;
+    private final Timer batchTimer;
+    private final Timer publishLatency;
+    private final AtomicLong lagMs = new AtomicLong();
+
+    private final Object signal = new Object();
+    private final List<Thread> workers = new ArrayList<>();
+    private boolean wakeupRequested;
+    private volatile boolean running;
+
+    public OutboxRelay(String name,
+                       String table,
+                       String topic,
+                       JdbcTemplate jdbcTemplate,
+                       TransactionTemplate transactionTemplate,
+                       DataSource listenDataSource,
+                       KafkaTemplate<String, DomainEvent> kafkaTemplate,
+                       ObjectMapper objectMapper,
+                       MeterRegistry meterRegistry,
+                       OutboxRelayProperties properties) {
+        this.name = name;
+        this.table = table;
+        this.topic = topic;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.listenDataSource = listenDataSource;
+        this.kafkaTemplate = kafkaTemplate;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+
+        this.claimSql = "SELECT id, aggregate_id, payload::text AS payload, " +
+                "EXTRACT(EPOCH FROM (LOCALTIMESTAMP - created_at)) * 1000 AS age_ms " +
+                "FROM " + table + " WHERE status = 'PENDING' " +
+                "ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED";
+        this.markPublishedSql = "UPDATE " + table +
+                " SET status = 'PUBLISHED', published_at = LOCALTIMESTAMP WHERE id = ANY(?)";
+        this.markFailedSql = "UPDATE " + table + " SET status = 'FAILED' WHERE id = ANY(?)";
+        this.purgeSql = "DELETE FROM " + table + " WHERE id IN (" +
+                "SELECT id FROM " + table + " WHERE status = 'PUBLISHED' " +
+                "AND published_at < LOCALTIMESTAMP - make_interval(hours => ?) " +
+                "LIMIT ? FOR UPDATE SKIP LOCKED)";
+
+        this.publishedCounter = Counter.builder("outbox.relay.published")
+                .description("Outbox events published to Kafka")
+                .tag("outbox", name)
+                .register(meterRegistry);
+        this.sendFailedCounter = Counter.builder("outbox.relay.failed")
+                .description("Outbox events that could not be published")
+                .tag("outbox", name)
+                .tag("reason", "send")
+                .register(meterRegistry);
+        this.serializationFailedCounter = Counter.builder("outbox.relay.failed")
+                .description("Outbox events that could not be published")
+                .tag("outbox", name)
+                .tag("reason", "payload")
+                .register(meterRegistry);
+        this.purgedCounter = Counter.builder("outbox.relay.purged")
+                .description("Published outbox rows deleted by the retention purge")
+                .tag("outbox", name)
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("outbox.relay.batch")
+                .description("Time to claim, send and mark one outbox batch")
+                .tag("outbox", name)
+                .register(meterRegistry);
+        this.publishLatency = Timer.builder("outbox.relay.publish.latency")
+                .description("Time from outbox insert to Kafka ack")
+                .tag("outbox", name)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        Gauge.builder("outbox.relay.lag", lagMs, AtomicLong::get)
+                .description("Age of the oldest event in the last claimed batch (ms)")
+                .tag("outbox", name)
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Wake idle workers so they poll immediately (a worker that is busy
+     * polls again as soon as its current batch completes)
+     */
+    public void wakeup() {
+        synchronized (signal) {
+            wakeupRequested = true;
+            signal.notifyAll();
+        }
+    }
+
+    @Override
+    public void start() {
+        if (!properties.isEnabled() || running) {
+            return;
+        }
+        running = true;
+        int parallelism = Math.max(1, properties.getParallelism());
+        for (int i = 0; i < parallelism; i++) {
+            Thread worker = new Thread(this::runWorker, "outbox-relay-" + name + "-" + i);
+            worker.setDaemon(true);
+            worker.start();
+            workers.add(worker);
+        }
+        if (properties.getRetentionHours() > 0) {
+            Thread purger = new Thread(this::runPurger, "outbox-purge-" + name);
+            purger.setDaemon(true);
+            purger.start();
+            workers.add(purger);
+        }
+        if (properties.isListenEnabled()) {
+            Thread listener = new Thread(
+                    new OutboxNotificationListener(table, listenDataSource, this,
+                            properties.getMaxPollIntervalMs()),
+                    "outbox-listener-" + name);
+            listener.setDaemon(true);
+            listener.start();
+            workers.add(listener);
+        }
+        log.info("Outbox relay started: outbox={}, topic={}, batchSize={}, parallelism={}, listen={}",
+                name, topic, properties.getBatchSize(), parallelism, properties.isListenEnabled());
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        wakeup();
+        for (Thread worker : workers) {
+            try {
+                worker.join(properties.getSendTimeoutMs());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        workers.clear();
+        log.info("Outbox relay stopped: outbox={}", name);
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void runWorker() {
+        long idleDelay = properties.getMinPollIntervalMs();
+
+        while (running) {
+            long delay;
+            try {
+                int claimed = pollOnce();
+                if (claimed >= properties.getBatchSize()) {
+                    idleDelay = properties.getMinPollIntervalMs();
+                    continue;
+                }
+                if (claimed > 0) {
+                    idleDelay = properties.getMinPollIntervalMs();
+                    delay = idleDelay;
+                } else {
+                    delay = idleDelay;
+                    idleDelay = Math.min(idleDelay * 2, properties.getMaxPollIntervalMs());
+                }
+            } catch (Exception e) {
+                log.error("Outbox relay poll failed: outbox={}, error={}", name, e.getMessage());
+                delay = properties.getMaxPollIntervalMs();
+            }
+            await(delay);
+        }
+    }
+
+    /**
+     * Retention worker: delete expired PUBLISHED rows in bounded batches so the
+     * table (and every scan of it) stays proportional to recent traffic
+     */
+    private void runPurger() {
+        while (running) {
+            try {
+                long purged = 0;
+                int deleted;
+                do {
+                    deleted = jdbcTemplate.update(purgeSql,
+                            (int) properties.getRetentionHours(), properties.getPurgeBatchSize());
+                    purged += deleted;
+                } while (deleted >= properties.getPurgeBatchSize() && running);
+
+                if (purged > 0) {
+                    purgedCounter.increment(purged);
+                    log.info("Outbox retention purge: outbox={}, deleted={}", name, purged);
+                }
+            } catch (Exception e) {
+                log.error("Outbox retention purge failed: outbox={}, error={}", name, e.getMessage());
+            }
+            sleepUntilStopped(properties.getPurgeIntervalMs());
+        }
+    }
+
+    /**
+     * Sleep until the deadline or until the relay stops (ignores wakeups)
+     */
+    private void sleepUntilStopped(long millis) {
+        long deadline = System.currentTimeMillis() + millis;
+        synchronized (signal) {
+            long remaining;
+            while (running && (remaining = deadline - System.currentTimeMillis()) > 0) {
+                try {
+                    signal.wait(remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void await(long delayMs) {
+        synchronized (signal) {
+            if (!running) {
+                return;
+            }
+            try {
+                if (!wakeupRequested) {
+                    signal.wait(Math.max(1, delayMs));
+                }
+                wakeupRequested = false;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+        }
+    }
+
+    /**
+     * Claim, send and mark one batch in its own transaction
+     *
+     * @return number of rows claimed
+     */
+    int pollOnce() {
+        return batchTimer.record(() -> transactionTemplate.execute(status -> publishBatch()));
+    }
+
+    /**
+     * Claim, send and mark one batch (runs inside a transaction)
+     *
+     * @return number of rows claimed
+     */
+    private Integer publishBatch() {
+        List<OutboxRow> batch = jdbcTemplate.query(claimSql,
+                (rs, rowNum) -> new OutboxRow(
+                        rs.getLong("id"),
+                        rs.getString("aggregate_id"),
+                        rs.getString("payload"),
+                        Math.max(0, rs.getLong("age_ms"))),
+                properties.getBatchSize());
+
+        if (batch.isEmpty()) {
+            lagMs.set(0);
+            return 0;
+        }
+        lagMs.set(batch.get(0).ageMs());
+
+        long claimedAt = System.nanoTime();
+        List<CompletableFuture<SendResult<String, DomainEvent>>> sends = new ArrayList<>(batch.size());
+        List<OutboxRow> sent = new ArrayList<>(batch.size());
+        List<Long> failedIds = new ArrayList<>();
+
+        for (OutboxRow row : batch) {
+            try {
+                DomainEvent event = objectMapper.readValue(row.payload(), DomainEvent.class);
+                sends.add(kafkaTemplate.send(topic, row.aggregateId(), event));
+                sent.add(row);
+            } catch (Exception e) {
+                log.error("Error publishing event from outbox: outbox={}, id={}, error={}",
+                        name, row.id(), e.getMessage(), e);
+                failedIds.add(row.id());
+            }
+        }
+
+        kafkaTemplate.flush();
+
+        List<Long> publishedIds = new ArrayList<>(sent.size());
+        // Once a key has a failed send, later rows for it stay PENDING too so the retry keeps their order
+        Set<String> failedAggregates = new HashSet<>();
+        long deadline = claimedAt + TimeUnit.MILLISECONDS.toNanos(properties.getSendTimeoutMs());
+
+        for (int i = 0; i < sends.size(); i++) {
+            OutboxRow row = sent.get(i);
+            try {
+                sends.get(i).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                if (failedAggregates.contains(row.aggregateId())) {
+                    continue;
+                }
+                publishedIds.add(row.id());
+                publishLatency.record(Duration.ofMillis(row.ageMs())
+                        .plusNanos(System.nanoTime() - claimedAt));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                // Keep as PENDING for retry on next poll
+                sendFailedCounter.increment();
+                log.error("Failed to publish event to Kafka: outbox={}, id={}, error={}",
+                        name, row.id(), e.getMessage());
+                failedAggregates.add(row.aggregateId());
+            }
+        }
+
+        updateStatus(markPublishedSql, publishedIds);
+        updateStatus(markFailedSql, failedIds);
+        publishedCounter.increment(publishedIds.size());
+        serializationFailedCounter.increment(failedIds.size());
+
+        log.debug("Outbox batch published: outbox={}, claimed={}, published={}, failed={}",
+                name, batch.size(), publishedIds.size(), failedIds.size());
+
+        return batch.size();
+    }
+
+    private void updateStatus(String sql, List<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.update(sql, ps -> {
+            Connection connection = ps.getConnection();
+            Array array = connection.createArrayOf("bigint", ids.toArray());
+            ps.setArray(1, array);
+        });
+    }
+
+    private record OutboxRow(long id, String aggregateId, String payload, long ageMs) {
+    }
+}
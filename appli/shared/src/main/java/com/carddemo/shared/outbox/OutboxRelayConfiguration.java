@@ -0,0 +1,53 @@
+package com.carddemo.shared.outbox;
+
+import com.carddemo.shared.event.DomainEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Outbox Relay Configuration
+ *
+ * Wires an OutboxRelay for the service's OutboxRelayDefinition, bound to the
+ * outbox.relay properties. Services @Import this class and declare only the
+ * definition bean.
+ *
+ * The LISTEN connection bypasses the Hikari pool so it does not hold a
+ * pooled connection for the lifetime of the service.
+ */
+@Configuration
+public class OutboxRelayConfiguration {
+
+    @Bean
+    @ConfigurationProperties(prefix = "outbox.relay")
+    public OutboxRelayProperties outboxRelayProperties() {
+        return new OutboxRelayProperties();
+    }
+
+    @Bean
+    public OutboxRelay outboxRelay(OutboxRelayDefinition outboxRelayDefinition,
+                                   JdbcTemplate jdbcTemplate,
+                                   TransactionTemplate transactionTemplate,
+                                   DataSourceProperties dataSourceProperties,
+                                   KafkaTemplate<String, DomainEvent> kafkaTemplate,
+                                   ObjectMapper objectMapper,
+                                   MeterRegistry meterRegistry,
+                                   OutboxRelayProperties outboxRelayProperties) {
+        return new OutboxRelay(
+                outboxRelayDefinition.name(), outboxRelayDefinition.table(), outboxRelayDefinition.topic(),
+                jdbcTemplate, transactionTemplate, listenDataSource(dataSourceProperties),
+                kafkaTemplate, objectMapper, meterRegistry, outboxRelayProperties);
+    }
+
+    private static DriverManagerDataSource listenDataSource(DataSourceProperties properties) {
+        return new DriverManagerDataSource(properties.determineUrl(),
+                properties.determineUsername(), properties.determinePassword());
+    }
+}
@@ -0,0 +1,8 @@
+package com.carddemo.shared.outbox;
+
+/**
+ * The one thing a service contributes to its outbox relay: which outbox
+ * table is drained to which Kafka topic (name tags logs, threads and metrics)
+ */
+public record OutboxRelayDefinition(String name, String table, String topic) {
+}
@@ -0,0 +1,68 @@
+package com.carddemo.shared.outbox;
+
+import lombok.Data;
+
+/**
+ * Outbox Relay tuning knobs
+ *
+ * Bound from "outbox.relay.*" in each service that publishes from an outbox table.
+ */
+@Data
+public class OutboxRelayProperties {
+
+    /**
+     * Start the relay with the application
+     */
+    private boolean enabled = true;
+
+    /**
+     * Rows claimed (and sent to Kafka) per batch
+     */
+    private int batchSize = 500;
+
+    /**
+     * Worker threads draining the outbox concurrently (SKIP LOCKED keeps them apart).
+     * Values above 1 trade per-aggregate ordering for throughput.
+     */
+    private int parallelism = 1;
+
+    /**
+     * Poll delay after a partial batch; also the starting point of the idle back-off
+     */
+    private long minPollIntervalMs = 50;
+
+    /**
+     * Upper bound of the idle back-off (and the delay after a database error)
+     */
+    private long maxPollIntervalMs = 1000;
+
+    /**
+     * Hold a LISTEN connection on the outbox table's channel and drain as soon as
+     * an insert commits (requires the notify trigger); polling remains as a fallback
+     */
+    private boolean listenEnabled = true;
+
+    /**
+     * Max wait for Kafka acks for one batch. The batch transaction holds a pooled
+     * connection and the claimed rows' locks for the whole wait, so keep this well
+     * below the pool's connection-timeout; rows still unacked at the deadline stay
+     * PENDING and are re-sent by a later batch.
+     */
+    private long sendTimeoutMs = 2000;
+
+    /**
+     * How long PUBLISHED rows are kept before the purge worker deletes them
+     * (0 disables purging; FAILED rows are always kept for inspection)
+     */
+    private long retentionHours = 72;
+
+    /**
+     * Rows deleted per purge statement
+     */
+    private int purgeBatchSize = 5000;
+
+    /**
+     * Delay between purge runs
+     */
+    private long purgeIntervalMs = 600000;
+}
@@ -0,0 +1,99 @@
+package com.carddemo.shared.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.security.Principal;
+import java.time.LocalDateTime;
+
+/**
+ * JWT Authentication Filter
+ *
+ * Verifies the "Authorization: Bearer" token locally with {@link JwtVerifier}
+ * and exposes the caller as a {@link TokenPrincipal}:
+ *   - request attribute {@link TokenPrincipal#REQUEST_ATTRIBUTE} / {@link TokenPrincipal#current()}
+ *   - {@link HttpServletRequest#getUserPrincipal()} and isUserInRole("ADMIN" | "USER")
+ *
+ * A present but invalid token is rejected with 401. A request without a token
+ * passes through anonymously unless jwt.required is set.
+ */
+public class JwtAuthenticationFilter extends OncePerRequestFilter {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final JwtVerifier jwtVerifier;
+    private final boolean required;
+
+    public JwtAuthenticationFilter(JwtVerifier jwtVerifier, boolean required) {
+        this.jwtVerifier = jwtVerifier;
+        this.required = required;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header == null || !header.startsWith(BEARER_PREFIX)) {
+            if (required && !HttpMethod.OPTIONS.matches(request.getMethod())) {
+                reject(response, "Missing bearer token");
+                return;
+            }
+            chain.doFilter(request, response);
+            return;
+        }
+
+        TokenPrincipal principal = jwtVerifier.verify(header.substring(BEARER_PREFIX.length())).orElse(null);
+        if (principal == null) {
+            reject(response, "Invalid or expired token");
+            return;
+        }
+
+        request.setAttribute(TokenPrincipal.REQUEST_ATTRIBUTE, principal);
+        chain.doFilter(new AuthenticatedRequest(request, principal), response);
+    }
+
+    private void reject(HttpServletResponse response, String message) throws IOException {
+        response.setStatus(HttpStatus.UNAUTHORIZED.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"timestamp\":\"" + LocalDateTime.now() + "\",\"status\":401,"
+                + "\"error\":\"Unauthorized\",\"message\":\"" + message + "\"}");
+    }
+
+    /**
+     * Request view carrying the verified principal
+     */
+    private static class AuthenticatedRequest extends HttpServletRequestWrapper {
+
+        private final TokenPrincipal principal;
+
+        AuthenticatedRequest(HttpServletRequest request, TokenPrincipal principal) {
+            super(request);
+            this.principal = principal;
+        }
+
+        @Override
+        public Principal getUserPrincipal() {
+            return principal;
+        }
+
+        @Override
+        public String getRemoteUser() {
+            return principal.userId();
+        }
+
+        @Override
+        public boolean isUserInRole(String role) {
+            return principal.isAdmin() ? "ADMIN".equals(role) : "USER".equals(role);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.carddemo.shared.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+/**
+ * JWT Verifier
+ *
+ * Stateless verification of auth-service access tokens, so downstream services
+ * no longer call back into /api/v1/auth/validate on every request.
+ *
+ * Checks, in one parse: HMAC signature, expiry (with clock skew), issuer,
+ * audience and token type. Revocation is checked only when a
+ * {@link TokenBlacklistCache} is supplied; without one a revoked token stays
+ * usable until it expires (access tokens are short-lived).
+ */
+@Slf4j
+public class JwtVerifier {
+
+    private static final String ACCESS_TOKEN_TYPE = "access";
+
+    private final JwtParser jwtParser;
+    private final TokenBlacklistCache blacklistCache;
+
+    public JwtVerifier(JwtVerifierProperties properties, TokenBlacklistCache blacklistCache) {
+        if (properties.getSecret() == null || properties.getSecret().isBlank()) {
+            throw new IllegalStateException("jwt.secret must be set to verify tokens");
+        }
+        this.jwtParser = Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(properties.getSecret().getBytes(StandardCharsets.UTF_8)))
+                .requireIssuer(properties.getIssuer())
+                .requireAudience(properties.getAudience())
+                .clockSkewSeconds(properties.getClockSkewSeconds())
+                .build();
+        this.blacklistCache = blacklistCache;
+    }
+
+    /**
+     * Verify an access token
+     *
+     * @param token JWT (without the "Bearer " prefix)
+     * @return caller identity, or empty if the token is invalid, expired, not an access token or revoked
+     */
+    public Optional<TokenPrincipal> verify(String token) {
+        if (token == null || token.isBlank()) {
+            return Optional.empty();
+        }
+        try {
+            Claims claims = jwtParser.parseSignedClaims(token).getPayload();
+
+            if (!ACCESS_TOKEN_TYPE.equals(claims.get("type", String.class))) {
+                log.debug("Rejected non-access token for {}", claims.getSubject());
+                return Optional.empty();
+            }
+
+            String jti = claims.getId();
+            if (jti != null && blacklistCache != null && blacklistCache.isRevoked(jti)) {
+                log.warn("Token is blacklisted: {}", jti);
+                return Optional.empty();
+            }
+
+            return Optional.of(new TokenPrincipal(
+                    claims.get("userId", String.class),
+                    claims.get("userType", String.class),
+                    claims.get("customerId", Integer.class),
+                    claims.get("sessionId", String.class),
+                    jti,
+                    claims.getExpiration().toInstant()));
+        } catch (ExpiredJwtException e) {
+            log.debug("Token expired: {}", e.getMessage());
+            return Optional.empty();
+        } catch (JwtException | IllegalArgumentException e) {
+            log.debug("Invalid token: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+}
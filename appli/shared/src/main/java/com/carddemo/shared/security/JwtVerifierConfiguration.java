@@ -0,0 +1,61 @@
+package com.carddemo.shared.security;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+/**
+ * JWT Verification Configuration
+ *
+ * Verifies auth-service access tokens locally on /api/** (no call back to
+ * auth-service), bound to the jwt.* properties. Services @Import this class.
+ *
+ * With jwt.blacklist.enabled (and Redis on the classpath) revocations are
+ * checked through the shared blacklist near-cache; the service subscribes it
+ * to TokenBlacklistCache.EVENTS_CHANNEL. Otherwise a logged-out token is
+ * accepted until it expires.
+ */
+@Configuration
+public class JwtVerifierConfiguration {
+
+    @Bean
+    @ConfigurationProperties(prefix = "jwt")
+    public JwtVerifierProperties jwtVerifierProperties() {
+        return new JwtVerifierProperties();
+    }
+
+    @Bean
+    public JwtVerifier jwtVerifier(JwtVerifierProperties jwtVerifierProperties,
+                                   ObjectProvider<TokenBlacklistCache> tokenBlacklistCache) {
+        return new JwtVerifier(jwtVerifierProperties, tokenBlacklistCache.getIfAvailable());
+    }
+
+    @Bean
+    public FilterRegistrationBean<JwtAuthenticationFilter> jwtAuthenticationFilter(
+            JwtVerifier jwtVerifier, JwtVerifierProperties jwtVerifierProperties) {
+        FilterRegistrationBean<JwtAuthenticationFilter> registration = new FilterRegistrationBean<>(
+                new JwtAuthenticationFilter(jwtVerifier, jwtVerifierProperties.isRequired()));
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+
+    /**
+     * Revocation near-cache, only in services with Redis that enable it
+     */
+    @Configuration
+    @ConditionalOnClass(name = "org.springframework.data.redis.core.StringRedisTemplate")
+    @ConditionalOnProperty(prefix = "jwt.blacklist", name = "enabled", havingValue = "true")
+    static class TokenBlacklistConfiguration {
+
+        @Bean
+        public TokenBlacklistCache tokenBlacklistCache(StringRedisTemplate stringRedisTemplate,
+                                                       JwtVerifierProperties jwtVerifierProperties) {
+            return new TokenBlacklistCache(stringRedisTemplate, jwtVerifierProperties.getBlacklist());
+        }
+    }
+}
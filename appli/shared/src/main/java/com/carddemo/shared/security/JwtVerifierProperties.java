@@ -0,0 +1,43 @@
+package com.carddemo.shared.security;
+
+import lombok.Data;
+
+/**
+ * JWT verification settings
+ *
+ * Bound from "jwt.*" in each service that verifies auth-service tokens locally.
+ * Secret, issuer and audience must match auth-service's JwtProperties.
+ */
+@Data
+public class JwtVerifierProperties {
+
+    /**
+     * HMAC signing secret shared with auth-service
+     */
+    private String secret;
+
+    /**
+     * Expected "iss" claim
+     */
+    private String issuer = "carddemo-auth-service";
+
+    /**
+     * Expected "aud" claim
+     */
+    private String audience = "carddemo-app";
+
+    /**
+     * Tolerated clock difference with auth-service when checking exp/nbf (seconds)
+     */
+    private long clockSkewSeconds = 30;
+
+    /**
+     * Reject requests without a bearer token (a present but invalid token is always rejected)
+     */
+    private boolean required = false;
+
+    /**
+     * Revocation checks against the auth-service blacklist
+     */
+    private TokenBlacklistProperties blacklist = new TokenBlacklistProperties();
+}
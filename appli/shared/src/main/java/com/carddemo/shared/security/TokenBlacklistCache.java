@@ -0,0 +1,203 @@
+package com.carddemo.shared.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Token Blacklist Near-Cache
+ *
+ * Local Bloom filter of revoked JTIs in front of the Redis blacklist
+ * (jwt:blacklist:{jti}). A "definitely not revoked" answer is served
+ * in-process; only a possible match costs a Redis round trip.
+ *
+ * Kept current by:
+ *   - pub/sub on jwt:blacklist:events (published by every blacklistToken)
+ *   - a periodic full resync (SCAN), which also drops expired entries
+ *
+ * If the last successful resync is older than the configured staleness
+ * bound, every check goes to Redis, so a missed pub/sub message can never
+ * hide a revocation for longer than that bound.
+ *
+ * Shared by auth-service (which writes the blacklist) and any service that
+ * verifies tokens locally with {@link JwtVerifier} and has Redis available.
+ * Register it as a bean in a context with scheduling enabled and subscribe it
+ * to {@link #EVENTS_CHANNEL}.
+ */
+@Slf4j
+public class TokenBlacklistCache implements MessageListener {
+
+    public static final String BLACKLIST_PREFIX = "jwt:blacklist:";
+    public static final String EVENTS_CHANNEL = "jwt:blacklist:events";
+
+    private final StringRedisTemplate redisTemplate;
+    private final TokenBlacklistProperties settings;
+
+    private volatile BloomFilter filter;
+    private volatile BloomFilter rebuilding;
+    private volatile long lastResyncAt;
+
+    public TokenBlacklistCache(StringRedisTemplate redisTemplate, TokenBlacklistProperties settings) {
+        this.redisTemplate = redisTemplate;
+        this.settings = settings;
+        this.filter = newFilter();
+    }
+
+    /**
+     * Check whether a token ID has been revoked
+     */
+    public boolean isRevoked(String jti) {
+        if (isFresh() && !filter.mightContain(jti)) {
+            return false;
+        }
+        return Boolean.TRUE.equals(redisTemplate.hasKey(BLACKLIST_PREFIX + jti));
+    }
+
+    /**
+     * Record a revocation locally and notify the other nodes
+     * (the caller has already written jwt:blacklist:{jti})
+     */
+    public void revoked(String jti) {
+        add(jti);
+        redisTemplate.convertAndSend(EVENTS_CHANNEL, jti);
+    }
+
+    /**
+     * Revocation published by any node (including this one)
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        add(new String(message.getBody(), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Rebuild the filter from Redis (default: every 30 seconds)
+     *
+     * The new filter receives live revocations from before the SCAN starts,
+     * so a revocation the cursor has already passed is not lost in the swap.
+     */
+    @Scheduled(initialDelay = 0, fixedDelayString = "${jwt.blacklist.resync-interval-ms:30000}")
+    public void resync() {
+        BloomFilter next = newFilter();
+        rebuilding = next;
+        int count = 0;
+        ScanOptions options = ScanOptions.scanOptions().match(BLACKLIST_PREFIX + "*").count(1000).build();
+        try (Cursor<String> cursor = redisTemplate.scan(options)) {
+            while (cursor.hasNext()) {
+                next.put(cursor.next().substring(BLACKLIST_PREFIX.length()));
+                count++;
+            }
+            install(next, count);
+        } catch (Exception e) {
+            log.warn("Token blacklist resync failed, checking Redis until it recovers: {}", e.getMessage());
+        } finally {
+            rebuilding = null;
+        }
+    }
+
+    /**
+     * Replace the filter with one holding exactly the given revoked JTIs
+     * (plus any revocation received while it was being built)
+     */
+    public void rebuild(Collection<String> jtis) {
+        BloomFilter next = newFilter();
+        rebuilding = next;
+        try {
+            jtis.forEach(next::put);
+            install(next, jtis.size());
+        } finally {
+            rebuilding = null;
+        }
+    }
+
+    private void install(BloomFilter next, int revokedCount) {
+        filter = next;
+        lastResyncAt = System.currentTimeMillis();
+        log.debug("Token blacklist near-cache rebuilt: {} revoked tokens", revokedCount);
+    }
+
+    private void add(String jti) {
+        // Read rebuilding first: a resync that installs in between has then received the JTI
+        // already, instead of it only reaching the filter being discarded
+        BloomFilter next = rebuilding;
+        if (next != null) {
+            next.put(jti);
+        }
+        filter.put(jti);
+    }
+
+    private boolean isFresh() {
+        return System.currentTimeMillis() - lastResyncAt <= settings.getMaxStalenessMs();
+    }
+
+    BloomFilter newFilter() {
+        return new BloomFilter(settings.getExpectedRevocations(), settings.getFalsePositiveRate());
+    }
+
+    /**
+     * Minimal thread-safe Bloom filter (double hashing over a 64-bit FNV-1a hash)
+     */
+    static class BloomFilter {
+
+        private final AtomicLongArray bits;
+        private final long bitCount;
+        private final int hashCount;
+
+        BloomFilter(long expectedInsertions, double falsePositiveRate) {
+            long n = Math.max(1, expectedInsertions);
+            long m = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            this.bitCount = Math.max(64, m);
+            this.hashCount = Math.max(1, (int) Math.round((double) bitCount / n * Math.log(2)));
+            this.bits = new AtomicLongArray((int) ((bitCount + 63) / 64));
+        }
+
+        void put(String value) {
+            long hash = hash(value);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= hashCount; i++) {
+                long index = Math.floorMod(h1 + (long) i * h2, bitCount);
+                int word = (int) (index >>> 6);
+                long mask = 1L << index;
+                long current;
+                do {
+                    current = bits.get(word);
+                } while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask));
+            }
+        }
+
+        boolean mightContain(String value) {
+            long hash = hash(value);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= hashCount; i++) {
+                long index = Math.floorMod(h1 + (long) i * h2, bitCount);
+                if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static long hash(String value) {
+            long hash = 0xcbf29ce484222325L;
+            for (int i = 0; i < value.length(); i++) {
+                hash ^= value.charAt(i);
+                hash *= 0x100000001b3L;
+            }
+            // Final avalanche so low and high halves are independent enough
+            hash ^= hash >>> 33;
+            hash *= 0xff51afd7ed558ccdL;
+            hash ^= hash >>> 33;
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.carddemo.shared.security;
+
+import lombok.Data;
+
+/**
+ * Token blacklist near-cache tuning knobs
+ *
+ * Bound from "jwt.blacklist.*" in every service that checks revocations.
+ */
+@Data
+public class TokenBlacklistProperties {
+
+    /**
+     * Check revocations in services that verify tokens locally (requires Redis);
+     * when off, a revoked token stays valid until it expires.
+     * auth-service owns the blacklist and always checks it.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Revoked tokens the Bloom filter is sized for
+     */
+    private long expectedRevocations = 100000;
+
+    /**
+     * Bloom filter false-positive rate (a false positive costs one Redis lookup)
+     */
+    private double falsePositiveRate = 0.01;
+
+    /**
+     * Full resync from Redis interval (milliseconds)
+     */
+    private long resyncIntervalMs = 30000;
+
+    /**
+     * Max age of the last successful resync before checks fall back to Redis;
+     * bounds how long a lost pub/sub message can hide a revocation
+     */
+    private long maxStalenessMs = 90000;
+}
@@ -0,0 +1,54 @@
+package com.carddemo.shared.security;
+
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.security.Principal;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Token Principal
+ *
+ * Caller identity taken from a verified auth-service access token.
+ *
+ * Replaces the user fields CICS programs received in the COMMAREA after
+ * COSGN00C sign-on:
+ *   SEC-USR-ID    -> userId
+ *   SEC-USR-TYPE  -> userType ('A' = admin, 'U' = regular user)
+ *   customerId    -> owning customer (null for admins)
+ */
+public record TokenPrincipal(
+        String userId,
+        String userType,
+        Integer customerId,
+        String sessionId,
+        String tokenId,
+        Instant expiresAt) implements Principal {
+
+    /**
+     * Request attribute holding the principal of an authenticated request
+     */
+    public static final String REQUEST_ATTRIBUTE = TokenPrincipal.class.getName();
+
+    @Override
+    public String getName() {
+        return userId;
+    }
+
+    public boolean isAdmin() {
+        return "A".equals(userType);
+    }
+
+    /**
+     * Principal of the current request, if it carried a valid token
+     */
+    public static Optional<TokenPrincipal> current() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable((TokenPrincipal) attributes.getAttribute(
+                REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST));
+    }
+}
@@ -0,0 +1,141 @@
+package com.carddemo.shared.outbox;
+
+import com.carddemo.shared.event.DomainEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class OutboxRelayTest {
+
+    private static final String TABLE = "test_outbox";
+    private static final String TOPIC = "test-events";
+
+    /** In-memory outbox: id -> [aggregate_id, payload, status] */
+    private final Map<Long, String[]> rows = new TreeMap<>();
+    private final Set<String> failNextSend = new HashSet<>();
+    private final List<String> sentPayloads = new ArrayList<>();
+
+    private OutboxRelay relay;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() throws Exception {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(Object[].class)))
+                .thenAnswer(invocation -> claimPending(invocation.getArgument(1)));
+        when(jdbcTemplate.update(anyString(), any(PreparedStatementSetter.class)))
+                .thenAnswer(invocation -> mark(invocation.getArgument(0), invocation.getArgument(1)));
+
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> ((TransactionCallback<?>) invocation.getArgument(0)).doInTransaction(null));
+
+        Map<DomainEvent, String> payloads = new HashMap<>();
+        ObjectMapper objectMapper = mock(ObjectMapper.class);
+        when(objectMapper.readValue(anyString(), eq(DomainEvent.class))).thenAnswer(invocation -> {
+            DomainEvent event = mock(DomainEvent.class);
+            payloads.put(event, invocation.getArgument(0));
+            return event;
+        });
+
+        KafkaTemplate<String, DomainEvent> kafkaTemplate = mock(KafkaTemplate.class);
+        when(kafkaTemplate.send(anyString(), anyString(), any(DomainEvent.class))).thenAnswer(invocation -> {
+            String payload = payloads.get(invocation.<DomainEvent>getArgument(2));
+            sentPayloads.add(payload);
+            if (failNextSend.remove(payload)) {
+                return CompletableFuture.failedFuture(new IllegalStateException("broker unavailable"));
+            }
+            return CompletableFuture.completedFuture(mock(SendResult.class));
+        });
+
+        relay = new OutboxRelay("test", TABLE, TOPIC, jdbcTemplate, transactionTemplate, null,
+                kafkaTemplate, objectMapper, new SimpleMeterRegistry(), new OutboxRelayProperties());
+    }
+
+    @Test
+    void failedSendKeepsLaterRowsOfTheSameAggregatePending() {
+        insert(1, "A", "A-1");
+        insert(2, "B", "B-1");
+        insert(3, "A", "A-2");
+        failNextSend.add("A-1");
+
+        relay.pollOnce();
+
+        // A-2 was acked, but marking it would put it ahead of A-1 on retry
+        assertEquals("PENDING", rows.get(1L)[2]);
+        assertEquals("PUBLISHED", rows.get(2L)[2]);
+        assertEquals("PENDING", rows.get(3L)[2]);
+
+        sentPayloads.clear();
+        relay.pollOnce();
+
+        assertEquals(List.of("A-1", "A-2"), sentPayloads);
+        assertEquals("PUBLISHED", rows.get(1L)[2]);
+        assertEquals("PUBLISHED", rows.get(3L)[2]);
+    }
+
+    private void insert(long id, String aggregateId, String payload) {
+        rows.put(id, new String[] {aggregateId, payload, "PENDING"});
+    }
+
+    private List<Object> claimPending(RowMapper<Object> mapper) throws Exception {
+        List<Object> claimed = new ArrayList<>();
+        for (Map.Entry<Long, String[]> row : rows.entrySet()) {
+            if (!"PENDING".equals(row.getValue()[2])) {
+                continue;
+            }
+            ResultSet rs = mock(ResultSet.class);
+            when(rs.getLong("id")).thenReturn(row.getKey());
+            when(rs.getString("aggregate_id")).thenReturn(row.getValue()[0]);
+            when(rs.getString("payload")).thenReturn(row.getValue()[1]);
+            claimed.add(mapper.mapRow(rs, claimed.size()));
+        }
+        return claimed;
+    }
+
+    private int mark(String sql, PreparedStatementSetter setter) throws Exception {
+        Object[][] ids = new Object[1][];
+        Connection connection = mock(Connection.class);
+        when(connection.createArrayOf(eq("bigint"), any(Object[].class))).thenAnswer(invocation -> {
+            ids[0] = invocation.getArgument(1);
+            return mock(Array.class);
+        });
+        PreparedStatement ps = mock(PreparedStatement.class);
+        when(ps.getConnection()).thenReturn(connection);
+        setter.setValues(ps);
+
+        String status = sql.contains("'PUBLISHED'") ? "PUBLISHED" : "FAILED";
+        for (Object id : ids[0]) {
+            rows.get((Long) id)[2] = status;
+        }
+        return ids[0].length;
+    }
+}
@@ -0,0 +1,107 @@
+package com.carddemo.shared.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TokenBlacklistCacheTest {
+
+    private StringRedisTemplate redisTemplate;
+    private TokenBlacklistCache cache;
+
+    @BeforeEach
+    void setUp() {
+        redisTemplate = mock(StringRedisTemplate.class);
+        TokenBlacklistProperties settings = new TokenBlacklistProperties();
+        settings.setEnabled(true);
+        cache = new TokenBlacklistCache(redisTemplate, settings);
+    }
+
+    @Test
+    void revocationDuringResyncSurvivesTheSwap() {
+        // The SCAN has already passed this JTI's key when the revocation arrives
+        Iterator<String> keys = List.of(TokenBlacklistCache.BLACKLIST_PREFIX + "scanned").iterator();
+        @SuppressWarnings("unchecked")
+        Cursor<String> cursor = mock(Cursor.class);
+        when(cursor.hasNext()).thenAnswer(invocation -> keys.hasNext());
+        when(cursor.next()).thenAnswer(invocation -> {
+            String key = keys.next();
+            cache.revoked("revoked-during-scan");
+            return key;
+        });
+        when(redisTemplate.scan(any(ScanOptions.class))).thenReturn(cursor);
+        when(redisTemplate.hasKey(TokenBlacklistCache.BLACKLIST_PREFIX + "revoked-during-scan")).thenReturn(true);
+
+        cache.resync();
+
+        assertTrue(cache.isRevoked("revoked-during-scan"));
+    }
+
+    @Test
+    void revocationRacingAnInstallReachesTheNewFilter() {
+        // A revocation is being added when another rebuild installs and clears
+        // rebuilding, while the SCAN has already passed the JTI's key
+        TokenBlacklistProperties settings = new TokenBlacklistProperties();
+        settings.setEnabled(true);
+        AtomicInteger created = new AtomicInteger();
+        TokenBlacklistCache[] racing = new TokenBlacklistCache[1];
+        racing[0] = new TokenBlacklistCache(redisTemplate, settings) {
+            @Override
+            BloomFilter newFilter() {
+                boolean initial = created.getAndIncrement() == 0;
+                return new BloomFilter(settings.getExpectedRevocations(), settings.getFalsePositiveRate()) {
+                    @Override
+                    void put(String value) {
+                        super.put(value);
+                        if (initial) {
+                            racing[0].rebuild(List.of());
+                        }
+                    }
+                };
+            }
+        };
+
+        Iterator<String> keys = List.of(TokenBlacklistCache.BLACKLIST_PREFIX + "scanned").iterator();
+        @SuppressWarnings("unchecked")
+        Cursor<String> cursor = mock(Cursor.class);
+        when(cursor.hasNext()).thenAnswer(invocation -> keys.hasNext());
+        when(cursor.next()).thenAnswer(invocation -> {
+            String key = keys.next();
+            racing[0].revoked("revoked-during-install");
+            return key;
+        });
+        when(redisTemplate.scan(any(ScanOptions.class))).thenReturn(cursor);
+        when(redisTemplate.hasKey(TokenBlacklistCache.BLACKLIST_PREFIX + "revoked-during-install")).thenReturn(true);
+
+        racing[0].resync();
+
+        assertTrue(racing[0].isRevoked("revoked-during-install"));
+    }
+
+    @Test
+    void unrevokedTokenIsAnsweredLocallyAfterResync() {
+        @SuppressWarnings("unchecked")
+        Cursor<String> cursor = mock(Cursor.class);
+        when(cursor.hasNext()).thenReturn(false);
+        when(redisTemplate.scan(any(ScanOptions.class))).thenReturn(cursor);
+
+        cache.resync();
+
+        assertFalse(cache.isRevoked("never-revoked"));
+        verify(redisTemplate, never()).hasKey(any());
+    }
+}
@@ -0,0 +1,17 @@
+package com.carddemo.transaction.config;
+
+import com.carddemo.shared.security.JwtVerifierConfiguration;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+/**
+ * JWT Verification Configuration
+ *
+ * Verifies auth-service access tokens locally on /api/** (no call back to
+ * auth-service). No Redis here, so revocations are not checked: a logged-out
+ * token is accepted until it expires.
+ */
+@Configuration
+@Import(JwtVerifierConfiguration.class)
+public class JwtVerifierConfig {
+}
@@ -1,6 +1,7 @@
 package com.carddemo.transaction.controller;
 
 import com.carddemo.transaction.dto.CreateTransactionRequest;
+import com.carddemo.transaction.dto.TransactionCursorPageResponse;
 import com.carddemo.transaction.dto.TransactionListResponse;
 import com.carddemo.transaction.dto.TransactionResponse;
 import com.carddemo.transaction.dto.TransactionSummaryResponse;
@@ -62,6 +63,28 @@ public class TransactionController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Get all transactions with keyset pagination (Admin view)
+     */
+    @GetMapping("/cursor")
+    @Operation(
+            summary = "List all transactions (cursor)",
+            description = "Returns all transactions using keyset pagination. Pass nextCursor from the previous " +
+                    "page as 'cursor'. The total count is only computed when includeTotal=true. Admin function."
+    )
+    public ResponseEntity<TransactionCursorPageResponse> getAllTransactionsByCursor(
+            @Parameter(description = "Continuation token from the previous page (omit for the first page)")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (max 100)")
+            @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Also return the total number of transactions")
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+
+        log.info("GET /api/v1/transactions/cursor - size: {}, includeTotal: {}", size, includeTotal);
+        TransactionCursorPageResponse response = transactionService.getAllTransactions(cursor, size, includeTotal);
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * Get transactions for an account (COTRN00C - Transaction History)
      */
@@ -100,6 +123,30 @@ public class TransactionController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Get transactions for a customer with keyset pagination - for RBAC
+     */
+    @GetMapping("/customer/{customerId}/cursor")
+    @Operation(
+            summary = "List transactions for customer (cursor)",
+            description = "Returns a customer's transactions across all their accounts using keyset pagination."
+    )
+    public ResponseEntity<TransactionCursorPageResponse> getTransactionsByCustomerByCursor(
+            @Parameter(description = "Customer ID")
+            @PathVariable Integer customerId,
+            @Parameter(description = "Continuation token from the previous page (omit for the first page)")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (max 100)")
+            @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Also return the total number of transactions")
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+
+        log.info("GET /api/v1/transactions/customer/{}/cursor - size: {}", customerId, size);
+        TransactionCursorPageResponse response =
+                transactionService.getTransactionsByCustomer(customerId, cursor, size, includeTotal);
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * Get transaction details
      */
@@ -146,14 +193,19 @@ public class TransactionController {
     @GetMapping("/search")
     @Operation(
             summary = "Search transactions",
-            description = "Searches transactions by description or merchant name"
+            description = "Searches transactions by description or merchant name. Results are ordered by " +
+                    "relevance, then most recent first, and returned one page at a time."
     )
     public ResponseEntity<List<TransactionResponse>> searchTransactions(
             @Parameter(description = "Search term")
-            @RequestParam String term) {
+            @RequestParam String term,
+            @Parameter(description = "Page number (0-based)")
+            @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Page size (max 100)")
+            @RequestParam(defaultValue = "50") int size) {
 
-        log.info("GET /api/v1/transactions/search?term={}", term);
-        List<TransactionResponse> response = transactionService.searchTransactions(term);
+        log.info("GET /api/v1/transactions/search?term={}&page={}&size={}", term, page, size);
+        List<TransactionResponse> response = transactionService.searchTransactions(term, page, size);
         return ResponseEntity.ok(response);
     }
 
@@ -192,6 +244,23 @@ public class TransactionController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Rebuild the summary rollups for an account (Admin function)
+     */
+    @PostMapping("/account/{accountId}/summary/rebuild")
+    @Operation(
+            summary = "Rebuild account transaction summary",
+            description = "Recomputes the account's summary rollups from its transaction history. Admin function."
+    )
+    public ResponseEntity<TransactionSummaryResponse> rebuildAccountSummary(
+            @Parameter(description = "Account ID")
+            @PathVariable Long accountId) {
+
+        log.info("POST /api/v1/transactions/account/{}/summary/rebuild", accountId);
+        TransactionSummaryResponse response = transactionService.rebuildTransactionSummary(accountId);
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * Get overall transaction summary (Admin reports)
      */
@@ -0,0 +1,57 @@
+package com.carddemo.transaction.dto;
+
+import com.carddemo.transaction.entity.Transaction;
+import com.carddemo.transaction.exception.TransactionException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Base64;
+
+/**
+ * Transaction Cursor
+ *
+ * Keyset pagination position: the (date, time, id) of the last transaction
+ * returned. Serialized as an opaque URL-safe token for clients.
+ */
+public record TransactionCursor(LocalDate transactionDate, LocalTime transactionTime, Long transactionId) {
+
+    private static final String SEPARATOR = "|";
+
+    /**
+     * Cursor positioned after the given transaction
+     */
+    public static TransactionCursor after(Transaction transaction) {
+        return new TransactionCursor(
+                transaction.getTransactionDate(),
+                transaction.getTransactionTime(),
+                transaction.getTransactionId());
+    }
+
+    /**
+     * Encode as an opaque continuation token
+     */
+    public String encode() {
+        String raw = transactionDate + SEPARATOR + transactionTime + SEPARATOR + transactionId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a continuation token (null or blank means first page)
+     */
+    public static TransactionCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\" + SEPARATOR);
+            return new TransactionCursor(
+                    LocalDate.parse(parts[0]),
+                    LocalTime.parse(parts[1]),
+                    Long.parseLong(parts[2]));
+        } catch (RuntimeException e) {
+            throw TransactionException.invalidOperation("Invalid cursor token");
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.carddemo.transaction.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Transaction Cursor Page Response DTO
+ *
+ * One page of a keyset-paginated transaction listing.
+ * Pass nextCursor back as the "cursor" parameter to fetch the next page.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TransactionCursorPageResponse {
+
+    private List<TransactionResponse> transactions;
+    private int size;
+    private boolean hasMore;
+    private String nextCursor;
+
+    /**
+     * Total matching transactions - only populated when requested (includeTotal=true)
+     */
+    private Long totalElements;
+}
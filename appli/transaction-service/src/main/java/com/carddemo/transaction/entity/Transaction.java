@@ -83,6 +83,10 @@ public class Transaction {
     @Column(name = "card_number", length = 16)
     private String cardNumber;
 
+    // Generated by the database from card_number (read-only)
+    @Column(name = "card_last_four", columnDefinition = "char(4)", insertable = false, updatable = false)
+    private String cardLastFour;
+
     @Column(name = "original_tranid", length = 16)
     private String originalTranId;
 
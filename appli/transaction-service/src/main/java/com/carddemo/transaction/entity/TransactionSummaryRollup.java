@@ -0,0 +1,77 @@
+package com.carddemo.transaction.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Transaction Summary Rollup Entity
+ *
+ * Pre-aggregated counts and totals per account, transaction type and category.
+ * Maintained incrementally by createTransaction() so that the CORPT00C report
+ * reads O(categories) rows instead of scanning the account's full history.
+ *
+ * A null transaction category is stored as an empty string so that it can
+ * take part in the primary key.
+ */
+@Entity
+@Table(name = "transaction_summary_rollups")
+@IdClass(TransactionSummaryRollup.RollupId.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TransactionSummaryRollup {
+
+    public static final String NO_CATEGORY = "";
+
+    @Id
+    @Column(name = "account_id", nullable = false)
+    private Long accountId;
+
+    @Id
+    @Column(name = "transaction_type", length = 4, nullable = false)
+    private String transactionType;
+
+    @Id
+    @Column(name = "transaction_category", length = 10, nullable = false)
+    private String transactionCategory;
+
+    @Column(name = "transaction_count", nullable = false)
+    private long transactionCount;
+
+    @Column(name = "total_amount", precision = 15, scale = 2, nullable = false)
+    private BigDecimal totalAmount;
+
+    @Column(name = "abs_total_amount", precision = 15, scale = 2, nullable = false)
+    private BigDecimal absTotalAmount;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    /**
+     * Category as stored on the transactions table (null when uncategorised)
+     */
+    public String getCategoryOrNull() {
+        return NO_CATEGORY.equals(transactionCategory) ? null : transactionCategory;
+    }
+
+    public static String toRollupCategory(String category) {
+        return category != null ? category : NO_CATEGORY;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RollupId implements Serializable {
+        private Long accountId;
+        private String transactionType;
+        private String transactionCategory;
+    }
+}
@@ -10,6 +10,7 @@ import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalTime;
 import java.util.List;
 
 /**
@@ -38,9 +39,9 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
     List<Transaction> findByCardNumberOrderByTransactionDateDescTransactionTimeDesc(String cardNumber);
 
     /**
-     * Find transactions by card's last 4 digits
+     * Find transactions by card's last 4 digits (exact match on CHAR(4); callers pass 4 digits)
      */
-    @Query("SELECT t FROM Transaction t WHERE t.cardNumber LIKE CONCAT('%', :lastFour) ORDER BY t.transactionDate DESC, t.transactionTime DESC")
+    @Query("SELECT t FROM Transaction t WHERE t.cardLastFour = :lastFour ORDER BY t.transactionDate DESC, t.transactionTime DESC")
     List<Transaction> findByCardLastFourDigits(@Param("lastFour") String lastFour);
 
     /**
@@ -93,13 +94,23 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
             String transactionType, Pageable pageable);
 
     /**
-     * Search transactions by description or merchant name
+     * Search transactions by description or merchant name, best matches first.
+     * The ILIKE filter is served by the pg_trgm GIN indexes on both columns;
+     * :pattern must be the escaped term wrapped in '%'.
      */
-    @Query("SELECT t FROM Transaction t WHERE " +
-            "LOWER(t.transactionDesc) LIKE LOWER(CONCAT('%', :term, '%')) OR " +
-            "LOWER(t.merchantName) LIKE LOWER(CONCAT('%', :term, '%')) " +
-            "ORDER BY t.transactionDate DESC, t.transactionTime DESC")
-    List<Transaction> searchByTerm(@Param("term") String term);
+    @Query(value = "SELECT t.* FROM transactions t " +
+            "WHERE t.transaction_desc ILIKE :pattern OR t.merchant_name ILIKE :pattern " +
+            "ORDER BY GREATEST(" +
+            "word_similarity(:term, COALESCE(t.transaction_desc, '')), " +
+            "word_similarity(:term, COALESCE(t.merchant_name, ''))) DESC, " +
+            "t.transaction_date DESC, t.transaction_time DESC, t.transaction_id DESC " +
+            "LIMIT :limit OFFSET :offset",
+            nativeQuery = true)
+    List<Transaction> searchByTerm(
+            @Param("term") String term,
+            @Param("pattern") String pattern,
+            @Param("limit") int limit,
+            @Param("offset") long offset);
 
     /**
      * Get total amount by account
@@ -132,15 +143,89 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
     long countByTransactionType(String transactionType);
 
     /**
-     * Get transaction counts by category for an account
+     * Get transaction counts and totals by type across all accounts
+     * Returns [type, count, sum(amount), sum(abs(amount))] - aggregated in the database
      */
-    @Query("SELECT t.transactionCategory, COUNT(t), SUM(t.transactionAmount) " +
-            "FROM Transaction t WHERE t.accountId = :accountId " +
-            "GROUP BY t.transactionCategory")
-    List<Object[]> getStatsByCategory(@Param("accountId") Long accountId);
+    @Query("SELECT t.transactionType, COUNT(t), COALESCE(SUM(t.transactionAmount), 0), " +
+            "COALESCE(SUM(ABS(t.transactionAmount)), 0) " +
+            "FROM Transaction t GROUP BY t.transactionType")
+    List<Object[]> getStatsByType();
 
     /**
      * Get all transactions ordered by date
      */
     Page<Transaction> findAllByOrderByTransactionDateDescTransactionTimeDesc(Pageable pageable);
+
+    // ========== Keyset (cursor) pagination ==========
+    // Ordered by (transaction_date, transaction_time, transaction_id) DESC and
+    // backed by the matching composite indexes, so every page costs the same.
+
+    /**
+     * First page of all transactions
+     */
+    @Query(value = "SELECT t.* FROM transactions t " +
+            "ORDER BY t.transaction_date DESC, t.transaction_time DESC, t.transaction_id DESC " +
+            "LIMIT :limit",
+            nativeQuery = true)
+    List<Transaction> findFirstPage(@Param("limit") int limit);
+
+    /**
+     * Page of all transactions after the given keyset position
+     */
+    @Query(value = "SELECT t.* FROM transactions t " +
+            "WHERE (t.transaction_date, t.transaction_time, t.transaction_id) < (:date, :time, :id) " +
+            "ORDER BY t.transaction_date DESC, t.transaction_time DESC, t.transaction_id DESC " +
+            "LIMIT :limit",
+            nativeQuery = true)
+    List<Transaction> findPageAfter(
+            @Param("date") LocalDate date,
+            @Param("time") LocalTime time,
+            @Param("id") Long id,
+            @Param("limit") int limit);
+
+    // Customer pages take the top :limit rows of each account from idx_transactions_account_keyset
+    // (LATERAL) and merge them, instead of sorting the customer's whole history.
+
+    /**
+     * First page of a customer's transactions (across all their accounts)
+     */
+    @Query(value = "SELECT p.* FROM accounts a CROSS JOIN LATERAL (" +
+            "SELECT t.* FROM transactions t WHERE t.account_id = a.account_id " +
+            "ORDER BY t.transaction_date DESC, t.transaction_time DESC, t.transaction_id DESC " +
+            "LIMIT :limit) p " +
+            "WHERE a.customer_id = :customerId " +
+            "ORDER BY p.transaction_date DESC, p.transaction_time DESC, p.transaction_id DESC " +
+            "LIMIT :limit",
+            nativeQuery = true)
+    List<Transaction> findFirstPageByCustomerId(
+            @Param("customerId") Integer customerId,
+            @Param("limit") int limit);
+
+    /**
+     * Page of a customer's transactions after the given keyset position
+     */
+    @Query(value = "SELECT p.* FROM accounts a CROSS JOIN LATERAL (" +
+            "SELECT t.* FROM transactions t WHERE t.account_id = a.account_id " +
+            "AND (t.transaction_date, t.transaction_time, t.transaction_id) < (:date, :time, :id) " +
+            "ORDER BY t.transaction_date DESC, t.transaction_time DESC, t.transaction_id DESC " +
+            "LIMIT :limit) p " +
+            "WHERE a.customer_id = :customerId " +
+            "ORDER BY p.transaction_date DESC, p.transaction_time DESC, p.transaction_id DESC " +
+            "LIMIT :limit",
+            nativeQuery = true)
+    List<Transaction> findPageByCustomerIdAfter(
+            @Param("customerId") Integer customerId,
+            @Param("date") LocalDate date,
+            @Param("time") LocalTime time,
+            @Param("id") Long id,
+            @Param("limit") int limit);
+
+    /**
+     * Count transactions for a customer (across all their accounts)
+     */
+    @Query(value = "SELECT COUNT(*) FROM transactions t " +
+            "INNER JOIN accounts a ON t.account_id = a.account_id " +
+            "WHERE a.customer_id = :customerId",
+            nativeQuery = true)
+    long countByCustomerId(@Param("customerId") Integer customerId);
 }
@@ -0,0 +1,90 @@
+package com.carddemo.transaction.repository;
+
+import com.carddemo.transaction.entity.TransactionSummaryRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Transaction Summary Rollup Repository
+ *
+ * Incremental maintenance and rebuild of per-account summary rollups.
+ */
+@Repository
+public interface TransactionSummaryRollupRepository
+        extends JpaRepository<TransactionSummaryRollup, TransactionSummaryRollup.RollupId> {
+
+    /**
+     * Find all rollup rows for an account (one per type/category pair)
+     */
+    List<TransactionSummaryRollup> findByAccountIdOrderByTransactionCategoryAsc(Long accountId);
+
+    /**
+     * Add one transaction to its rollup row, creating the row if needed
+     */
+    @Modifying
+    @Query(value = "INSERT INTO transaction_summary_rollups AS r " +
+            "(account_id, transaction_type, transaction_category, transaction_count, total_amount, " +
+            "abs_total_amount, updated_at) " +
+            "VALUES (:accountId, :type, :category, 1, :amount, ABS(:amount), CURRENT_TIMESTAMP) " +
+            "ON CONFLICT (account_id, transaction_type, transaction_category) DO UPDATE SET " +
+            "transaction_count = r.transaction_count + 1, " +
+            "total_amount = r.total_amount + EXCLUDED.total_amount, " +
+            "abs_total_amount = r.abs_total_amount + EXCLUDED.abs_total_amount, " +
+            "updated_at = CURRENT_TIMESTAMP",
+            nativeQuery = true)
+    int increment(@Param("accountId") Long accountId,
+                  @Param("type") String type,
+                  @Param("category") String category,
+                  @Param("amount") BigDecimal amount);
+
+    /**
+     * Serialize rollup writers for one account until the surrounding transaction ends
+     */
+    @Query(value = "SELECT 1 FROM (SELECT pg_advisory_xact_lock(:accountId)) l", nativeQuery = true)
+    Integer lockAccount(@Param("accountId") Long accountId);
+
+    /**
+     * Delete all rollup rows for an account
+     */
+    @Modifying
+    @Query(value = "DELETE FROM transaction_summary_rollups WHERE account_id = :accountId", nativeQuery = true)
+    int deleteByAccount(@Param("accountId") Long accountId);
+
+    /**
+     * Recompute rollup rows for an account from the transactions table
+     */
+    @Modifying
+    @Query(value = "INSERT INTO transaction_summary_rollups " +
+            "(account_id, transaction_type, transaction_category, transaction_count, total_amount, " +
+            "abs_total_amount, updated_at) " +
+            "SELECT account_id, transaction_type, COALESCE(transaction_category, ''), " +
+            "COUNT(*), SUM(transaction_amount), SUM(ABS(transaction_amount)), CURRENT_TIMESTAMP " +
+            "FROM transactions WHERE account_id = :accountId " +
+            "GROUP BY account_id, transaction_type, COALESCE(transaction_category, '')",
+            nativeQuery = true)
+    int rebuildFromTransactions(@Param("accountId") Long accountId);
+
+    /**
+     * Find accounts whose rollup rows no longer match the transactions table
+     */
+    @Query(value = "SELECT DISTINCT COALESCE(t.account_id, r.account_id) FROM " +
+            "(SELECT account_id, transaction_type, COALESCE(transaction_category, '') AS transaction_category, " +
+            "COUNT(*) AS transaction_count, SUM(transaction_amount) AS total_amount, " +
+            "SUM(ABS(transaction_amount)) AS abs_total_amount " +
+            "FROM transactions GROUP BY 1, 2, 3) t " +
+            "FULL OUTER JOIN transaction_summary_rollups r " +
+            "ON r.account_id = t.account_id " +
+            "AND r.transaction_type = t.transaction_type " +
+            "AND r.transaction_category = t.transaction_category " +
+            "WHERE t.transaction_count IS DISTINCT FROM r.transaction_count " +
+            "OR t.total_amount IS DISTINCT FROM r.total_amount " +
+            "OR t.abs_total_amount IS DISTINCT FROM r.abs_total_amount",
+            nativeQuery = true)
+    List<Long> findDriftedAccounts();
+}
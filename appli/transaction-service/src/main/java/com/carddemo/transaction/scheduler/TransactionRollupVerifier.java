@@ -0,0 +1,52 @@
+package com.carddemo.transaction.scheduler;
+
+import com.carddemo.transaction.service.TransactionRollupService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Transaction Rollup Verifier
+ *
+ * Periodically compares the summary rollups with the transactions table and
+ * rebuilds any account that has drifted. The first run shortly after startup
+ * also backfills rollups for rows loaded outside the service.
+ *
+ * Replaces: nightly CORPT00C batch reconciliation
+ */
+@Component
+@ConditionalOnProperty(prefix = "transaction.rollup", name = "verify-enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+@RequiredArgsConstructor
+public class TransactionRollupVerifier {
+
+    private final TransactionRollupService rollupService;
+
+    /**
+     * Verify rollups and rebuild drifted accounts (default: every hour)
+     */
+    @Scheduled(initialDelayString = "${transaction.rollup.verify-initial-delay-ms:30000}",
+            fixedDelayString = "${transaction.rollup.verify-interval-ms:3600000}")
+    public void verifyRollups() {
+        List<Long> driftedAccounts = rollupService.findDriftedAccounts();
+
+        if (driftedAccounts.isEmpty()) {
+            log.debug("Transaction rollups verified: no drift");
+            return;
+        }
+
+        log.warn("Transaction rollup drift detected for {} accounts, rebuilding", driftedAccounts.size());
+
+        for (Long accountId : driftedAccounts) {
+            try {
+                rollupService.rebuildAccount(accountId);
+            } catch (Exception e) {
+                log.error("Failed to rebuild rollups for account {}: {}", accountId, e.getMessage(), e);
+            }
+        }
+    }
+}
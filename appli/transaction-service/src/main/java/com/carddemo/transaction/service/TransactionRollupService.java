@@ -0,0 +1,71 @@
+package com.carddemo.transaction.service;
+
+import com.carddemo.transaction.entity.Transaction;
+import com.carddemo.transaction.entity.TransactionSummaryRollup;
+import com.carddemo.transaction.repository.TransactionSummaryRollupRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Transaction Rollup Service
+ *
+ * Maintains the per-account summary rollups used by the CORPT00C report.
+ * Writes happen in the caller's unit of work so that a transaction row and
+ * its rollup increment commit (or roll back) together.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TransactionRollupService {
+
+    private final TransactionSummaryRollupRepository rollupRepository;
+
+    /**
+     * Add a newly created transaction to its account rollup.
+     *
+     * Must be called within the same @Transactional boundary as the insert.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordTransaction(Transaction transaction) {
+        rollupRepository.lockAccount(transaction.getAccountId());
+        rollupRepository.increment(
+                transaction.getAccountId(),
+                transaction.getTransactionType(),
+                TransactionSummaryRollup.toRollupCategory(transaction.getTransactionCategory()),
+                transaction.getTransactionAmount()
+        );
+    }
+
+    /**
+     * Get rollup rows for an account
+     */
+    @Transactional(readOnly = true)
+    public List<TransactionSummaryRollup> getRollups(Long accountId) {
+        return rollupRepository.findByAccountIdOrderByTransactionCategoryAsc(accountId);
+    }
+
+    /**
+     * Recompute an account's rollups from the transactions table
+     */
+    @Transactional
+    public void rebuildAccount(Long accountId) {
+        rollupRepository.lockAccount(accountId);
+        rollupRepository.deleteByAccount(accountId);
+        int rows = rollupRepository.rebuildFromTransactions(accountId);
+        log.info("Rebuilt transaction rollups for account {}: {} rows", accountId, rows);
+    }
+
+    /**
+     * Find accounts whose rollups have drifted from the transactions table
+     * (e.g. rows loaded by the batch import, which bypasses this service)
+     */
+    @Transactional(readOnly = true)
+    public List<Long> findDriftedAccounts() {
+        return rollupRepository.findDriftedAccounts();
+    }
+}
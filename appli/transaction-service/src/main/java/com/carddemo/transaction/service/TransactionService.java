@@ -1,14 +1,18 @@
 package com.carddemo.transaction.service;
 
 import com.carddemo.transaction.dto.CreateTransactionRequest;
+import com.carddemo.transaction.dto.TransactionCursor;
+import com.carddemo.transaction.dto.TransactionCursorPageResponse;
 import com.carddemo.transaction.dto.TransactionListResponse;
 import com.carddemo.transaction.dto.TransactionResponse;
 import com.carddemo.transaction.dto.TransactionSummaryResponse;
 import com.carddemo.transaction.entity.Transaction;
+import com.carddemo.transaction.entity.TransactionSummaryRollup;
 import com.carddemo.transaction.exception.TransactionException;
 import com.carddemo.transaction.repository.TransactionRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -19,7 +23,10 @@ import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 /**
@@ -39,7 +46,16 @@ import java.util.stream.Collectors;
 @Transactional(readOnly = true)
 public class TransactionService {
 
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
+    private static final Pattern LAST_FOUR = Pattern.compile("^\\d{4}$");
+
     private final TransactionRepository transactionRepository;
+    private final TransactionRollupService rollupService;
+
+    @Value("${transaction.summary.overall-cache-ttl-ms:30000}")
+    private long overallSummaryCacheTtlMs;
+
+    private volatile OverallSummarySnapshot overallSummarySnapshot;
 
     /**
      * Get all transactions for an account (COTRN00C - Transaction List)
@@ -94,6 +110,45 @@ public class TransactionService {
                 .map(TransactionResponse::fromEntity);
     }
 
+    /**
+     * Get all transactions with keyset pagination (Admin view)
+     *
+     * Unlike OFFSET paging, page N costs the same as page 1; the total count
+     * is only computed when requested.
+     */
+    public TransactionCursorPageResponse getAllTransactions(String cursorToken, int size, boolean includeTotal) {
+        log.info("Fetching all transactions with cursor pagination, size: {}", size);
+
+        TransactionCursor cursor = TransactionCursor.decode(cursorToken);
+        int limit = clampPageSize(size) + 1;
+
+        List<Transaction> rows = cursor == null
+                ? transactionRepository.findFirstPage(limit)
+                : transactionRepository.findPageAfter(
+                        cursor.transactionDate(), cursor.transactionTime(), cursor.transactionId(), limit);
+
+        return toCursorPage(rows, limit - 1, includeTotal ? transactionRepository.count() : null);
+    }
+
+    /**
+     * Get transactions for a customer with keyset pagination
+     */
+    public TransactionCursorPageResponse getTransactionsByCustomer(
+            Integer customerId, String cursorToken, int size, boolean includeTotal) {
+        log.info("Fetching transactions for customer: {} with cursor pagination, size: {}", customerId, size);
+
+        TransactionCursor cursor = TransactionCursor.decode(cursorToken);
+        int limit = clampPageSize(size) + 1;
+
+        List<Transaction> rows = cursor == null
+                ? transactionRepository.findFirstPageByCustomerId(customerId, limit)
+                : transactionRepository.findPageByCustomerIdAfter(customerId,
+                        cursor.transactionDate(), cursor.transactionTime(), cursor.transactionId(), limit);
+
+        return toCursorPage(rows, limit - 1,
+                includeTotal ? transactionRepository.countByCustomerId(customerId) : null);
+    }
+
     /**
      * Get transaction details by ID
      */
@@ -130,12 +185,20 @@ public class TransactionService {
     }
 
     /**
-     * Search transactions by term
+     * Search transactions by term (relevance ordered, one page at a time)
      */
-    public List<TransactionResponse> searchTransactions(String term) {
-        log.info("Searching transactions with term: {}", term);
+    public List<TransactionResponse> searchTransactions(String term, int page, int size) {
+        log.info("Searching transactions with term: {}, page: {}, size: {}", term, page, size);
 
-        return transactionRepository.searchByTerm(term).stream()
+        if (term == null || term.isBlank()) {
+            throw TransactionException.invalidOperation("Search term is required");
+        }
+
+        String trimmed = term.trim();
+        int pageSize = clampPageSize(size);
+        long offset = (long) Math.max(page, 0) * pageSize;
+
+        return transactionRepository.searchByTerm(trimmed, "%" + escapeLike(trimmed) + "%", pageSize, offset).stream()
                 .map(TransactionResponse::fromEntity)
                 .collect(Collectors.toList());
     }
@@ -147,8 +210,11 @@ public class TransactionService {
         log.info("Fetching transactions for card: ****{}",
                 cardNumber.length() > 4 ? cardNumber.substring(cardNumber.length() - 4) : cardNumber);
 
-        // If only 4 digits provided, use the last-four query
+        // If only 4 digits provided, use the last-four query (CHAR(4): shorter input never matches)
         if (cardNumber.length() <= 4) {
+            if (!LAST_FOUR.matcher(cardNumber).matches()) {
+                throw TransactionException.invalidOperation("Last four must be exactly 4 digits");
+            }
             return transactionRepository.findByCardLastFourDigits(cardNumber)
                     .stream()
                     .map(TransactionResponse::fromEntity)
@@ -163,37 +229,49 @@ public class TransactionService {
 
     /**
      * Get transaction summary for reports (CORPT00C equivalent)
+     *
+     * Served from the per-account rollups maintained by createTransaction(),
+     * so the cost is O(type x category) rows instead of O(transactions).
      */
     public TransactionSummaryResponse getTransactionSummary(Long accountId) {
         log.info("Generating transaction summary for account: {}", accountId);
 
-        List<Transaction> transactions = transactionRepository
-                .findByAccountIdOrderByTransactionDateDescTransactionTimeDesc(accountId);
+        List<TransactionSummaryRollup> rollups = rollupService.getRollups(accountId);
 
         // Calculate statistics
-        long totalTransactions = transactions.size();
+        long totalTransactions = 0;
         long purchaseCount = 0;
         long paymentCount = 0;
         long refundCount = 0;
         BigDecimal totalPurchases = BigDecimal.ZERO;
         BigDecimal totalPayments = BigDecimal.ZERO;
         BigDecimal totalRefunds = BigDecimal.ZERO;
+        Map<String, TransactionSummaryRollup> byCategory = new LinkedHashMap<>();
 
-        for (Transaction t : transactions) {
-            switch (t.getTransactionType()) {
+        for (TransactionSummaryRollup r : rollups) {
+            totalTransactions += r.getTransactionCount();
+            switch (r.getTransactionType()) {
                 case "SALE" -> {
-                    purchaseCount++;
-                    totalPurchases = totalPurchases.add(t.getTransactionAmount().abs());
+                    purchaseCount += r.getTransactionCount();
+                    // Sum of per-transaction ABS, as the original scan computed; differs from ABS(sum) when signs mix
+                    totalPurchases = totalPurchases.add(r.getAbsTotalAmount());
                 }
                 case "PYMT" -> {
-                    paymentCount++;
-                    totalPayments = totalPayments.add(t.getTransactionAmount());
+                    paymentCount += r.getTransactionCount();
+                    totalPayments = totalPayments.add(r.getTotalAmount());
                 }
                 case "RFND" -> {
-                    refundCount++;
-                    totalRefunds = totalRefunds.add(t.getTransactionAmount());
+                    refundCount += r.getTransactionCount();
+                    totalRefunds = totalRefunds.add(r.getTotalAmount());
                 }
             }
+
+            byCategory.merge(r.getTransactionCategory(), r, (a, b) -> TransactionSummaryRollup.builder()
+                    .transactionCategory(a.getTransactionCategory())
+                    .transactionCount(a.getTransactionCount() + b.getTransactionCount())
+                    .totalAmount(a.getTotalAmount().add(b.getTotalAmount()))
+                    .absTotalAmount(a.getAbsTotalAmount().add(b.getAbsTotalAmount()))
+                    .build());
         }
 
         BigDecimal totalAmount = totalPayments.subtract(totalPurchases).add(totalRefunds);
@@ -201,14 +279,13 @@ public class TransactionService {
                 ? totalPurchases.divide(BigDecimal.valueOf(purchaseCount > 0 ? purchaseCount : 1), 2, RoundingMode.HALF_UP)
                 : BigDecimal.ZERO;
 
-        // Get category breakdown
-        List<Object[]> categoryStats = transactionRepository.getStatsByCategory(accountId);
+        // Category breakdown
         List<TransactionSummaryResponse.CategorySummary> categoryBreakdown = new ArrayList<>();
 
-        for (Object[] row : categoryStats) {
-            String category = (String) row[0];
-            long count = ((Number) row[1]).longValue();
-            BigDecimal amount = row[2] != null ? (BigDecimal) row[2] : BigDecimal.ZERO;
+        for (TransactionSummaryRollup row : byCategory.values()) {
+            String category = row.getCategoryOrNull();
+            long count = row.getTransactionCount();
+            BigDecimal amount = row.getTotalAmount();
 
             categoryBreakdown.add(TransactionSummaryResponse.CategorySummary.builder()
                     .category(category)
@@ -239,27 +316,49 @@ public class TransactionService {
                 .build();
     }
 
+    /**
+     * Rebuild the summary rollups for an account from its transaction history
+     */
+    @Transactional
+    public TransactionSummaryResponse rebuildTransactionSummary(Long accountId) {
+        log.info("Rebuilding transaction summary rollups for account: {}", accountId);
+
+        rollupService.rebuildAccount(accountId);
+        return getTransactionSummary(accountId);
+    }
+
     /**
      * Get overall summary for all transactions (Admin reports)
+     *
+     * Aggregated in the database (one row per transaction type) and cached
+     * for a short TTL so that dashboard refreshes do not rescan the table.
      */
     public TransactionSummaryResponse getOverallSummary() {
-        log.info("Generating overall transaction summary");
+        OverallSummarySnapshot snapshot = overallSummarySnapshot;
+        if (snapshot != null && snapshot.isFresh()) {
+            log.debug("Returning cached overall transaction summary");
+            return snapshot.summary();
+        }
 
-        List<Transaction> transactions = transactionRepository.findAll();
+        log.info("Generating overall transaction summary");
 
-        long totalTransactions = transactions.size();
+        long totalTransactions = 0;
         long purchaseCount = 0;
         long paymentCount = 0;
         BigDecimal totalPurchases = BigDecimal.ZERO;
         BigDecimal totalPayments = BigDecimal.ZERO;
 
-        for (Transaction t : transactions) {
-            if ("SALE".equals(t.getTransactionType())) {
-                purchaseCount++;
-                totalPurchases = totalPurchases.add(t.getTransactionAmount().abs());
-            } else if ("PYMT".equals(t.getTransactionType())) {
-                paymentCount++;
-                totalPayments = totalPayments.add(t.getTransactionAmount());
+        for (Object[] row : transactionRepository.getStatsByType()) {
+            String type = (String) row[0];
+            long count = ((Number) row[1]).longValue();
+            totalTransactions += count;
+
+            if ("SALE".equals(type)) {
+                purchaseCount = count;
+                totalPurchases = (BigDecimal) row[3];
+            } else if ("PYMT".equals(type)) {
+                paymentCount = count;
+                totalPayments = (BigDecimal) row[2];
             }
         }
 
@@ -268,7 +367,7 @@ public class TransactionService {
                 ? totalPurchases.divide(BigDecimal.valueOf(purchaseCount), 2, RoundingMode.HALF_UP)
                 : BigDecimal.ZERO;
 
-        return TransactionSummaryResponse.builder()
+        TransactionSummaryResponse summary = TransactionSummaryResponse.builder()
                 .totalTransactions(totalTransactions)
                 .purchaseCount(purchaseCount)
                 .paymentCount(paymentCount)
@@ -281,6 +380,41 @@ public class TransactionService {
                 .totalPaymentsFormatted(TransactionSummaryResponse.formatAmount(totalPayments))
                 .averageTransactionFormatted(TransactionSummaryResponse.formatAmount(averageTransaction))
                 .build();
+
+        overallSummarySnapshot = new OverallSummarySnapshot(
+                summary, System.currentTimeMillis() + overallSummaryCacheTtlMs);
+        return summary;
+    }
+
+    private int clampPageSize(int size) {
+        return Math.max(1, Math.min(size, MAX_CURSOR_PAGE_SIZE));
+    }
+
+    /**
+     * Build a cursor page from rows fetched with one extra row (to detect more data)
+     */
+    private TransactionCursorPageResponse toCursorPage(List<Transaction> rows, int pageSize, Long total) {
+        boolean hasMore = rows.size() > pageSize;
+        List<Transaction> page = hasMore ? rows.subList(0, pageSize) : rows;
+
+        return TransactionCursorPageResponse.builder()
+                .transactions(page.stream()
+                        .map(TransactionResponse::fromEntity)
+                        .collect(Collectors.toList()))
+                .size(page.size())
+                .hasMore(hasMore)
+                .nextCursor(hasMore ? TransactionCursor.after(page.get(page.size() - 1)).encode() : null)
+                .totalElements(total)
+                .build();
+    }
+
+    /**
+     * Escape LIKE wildcards so the search term is matched literally
+     */
+    private String escapeLike(String term) {
+        return term.replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
     }
 
     private String getCategoryDisplayName(String category) {
@@ -325,6 +459,7 @@ public class TransactionService {
                 .build();
 
         Transaction savedTransaction = transactionRepository.save(transaction);
+        rollupService.recordTransaction(savedTransaction);
         log.info("Transaction created with ID: {}", savedTransaction.getTransactionId());
 
         return TransactionResponse.fromEntity(savedTransaction);
@@ -341,4 +476,13 @@ public class TransactionService {
             default -> amount;
         };
     }
+
+    /**
+     * Cached overall summary with its expiry time
+     */
+    private record OverallSummarySnapshot(TransactionSummaryResponse summary, long expiresAt) {
+        boolean isFresh() {
+            return System.currentTimeMillis() < expiresAt;
+        }
+    }
 }
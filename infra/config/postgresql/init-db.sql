@@ -9,6 +9,7 @@
 -- Create extensions
 CREATE EXTENSION IF NOT EXISTS "uuid-ossp";
 CREATE EXTENSION IF NOT EXISTS "pgcrypto";
+CREATE EXTENSION IF NOT EXISTS "pg_trgm";
 
 -- ============================================================================
 -- USERS TABLE (from USRSEC VSAM)
@@ -145,6 +146,40 @@ CREATE INDEX idx_transactions_account ON transactions(account_id);
 CREATE INDEX idx_transactions_date ON transactions(transaction_date DESC);
 CREATE INDEX idx_transactions_type ON transactions(transaction_type);
 CREATE INDEX idx_transactions_merchant ON transactions(merchant_id);
+-- Keyset pagination: (date, time, id) DESC seek order
+CREATE INDEX IF NOT EXISTS idx_transactions_keyset ON transactions(transaction_date DESC, transaction_time DESC, transaction_id DESC);
+CREATE INDEX IF NOT EXISTS idx_transactions_account_keyset ON transactions(account_id, transaction_date DESC, transaction_time DESC, transaction_id DESC);
+-- Search (ILIKE '%term%') on description / merchant name
+CREATE INDEX IF NOT EXISTS idx_transactions_desc_trgm ON transactions USING gin (transaction_desc gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_transactions_merchant_name_trgm ON transactions USING gin (merchant_name gin_trgm_ops);
+
+-- Last four card digits (frontend card navigation). Generated column: filled on
+-- every write, including batch imports, and backfilled when the column is added.
+ALTER TABLE transactions ADD COLUMN IF NOT EXISTS card_last_four CHAR(4)
+    GENERATED ALWAYS AS (RIGHT(card_number, 4)) STORED;
+CREATE INDEX IF NOT EXISTS idx_transactions_card_last_four ON transactions(card_last_four);
+
+-- ============================================================================
+-- TRANSACTION SUMMARY ROLLUPS (for CORPT00C reports)
+-- Maintained incrementally by transaction-service; verified/rebuilt by a
+-- background job when rows are loaded outside the service.
+-- ============================================================================
+
+CREATE TABLE IF NOT EXISTS transaction_summary_rollups (
+    account_id BIGINT NOT NULL,
+    transaction_type VARCHAR(4) NOT NULL,
+    transaction_category VARCHAR(10) NOT NULL DEFAULT '',
+    transaction_count BIGINT NOT NULL DEFAULT 0,
+    total_amount DECIMAL(15,2) NOT NULL DEFAULT 0.00,
+    abs_total_amount DECIMAL(15,2) NOT NULL DEFAULT 0.00,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (account_id, transaction_type, transaction_category)
+);
+
+COMMENT ON TABLE transaction_summary_rollups IS 'Per-account transaction counts and totals by type and category (CORPT00C)';
+COMMENT ON COLUMN transaction_summary_rollups.transaction_category IS 'Transaction category (empty string when uncategorised)';
+COMMENT ON COLUMN transaction_summary_rollups.total_amount IS 'Sum of signed transaction amounts';
+COMMENT ON COLUMN transaction_summary_rollups.abs_total_amount IS 'Sum of absolute transaction amounts (purchase totals are per-transaction ABS)';
 
 -- ============================================================================
 -- CREDIT CARDS TABLE (future, for CC00/CCLI/CCVW)
@@ -175,6 +210,11 @@ CREATE INDEX idx_cards_account ON credit_cards(account_id);
 CREATE INDEX idx_cards_status ON credit_cards(active_status);
 CREATE INDEX idx_cards_expiry ON credit_cards(expiry_date);
 
+-- Last four card digits (lookup by last four without a leading-wildcard scan)
+ALTER TABLE credit_cards ADD COLUMN IF NOT EXISTS card_last_four CHAR(4)
+    GENERATED ALWAYS AS (RIGHT(card_number, 4)) STORED;
+CREATE INDEX IF NOT EXISTS idx_cards_last_four ON credit_cards(card_last_four);
+
 -- ============================================================================
 -- AUDIT TRAIL TABLE
 -- ============================================================================
@@ -251,6 +291,14 @@ COMMENT ON COLUMN partners.rate_limit_per_minute IS 'Max requests per minute (re
 CREATE INDEX idx_partners_type ON partners(partner_type);
 CREATE INDEX idx_partners_active ON partners(is_active);
 
+-- Per-partner rate limit algorithm (see partner-service scripts/rate-limit-*.lua)
+ALTER TABLE partners ADD COLUMN IF NOT EXISTS rate_limit_algorithm VARCHAR(20) NOT NULL DEFAULT 'FIXED_WINDOW'
+    CHECK (rate_limit_algorithm IN ('FIXED_WINDOW', 'SLIDING_WINDOW', 'TOKEN_BUCKET'));
+ALTER TABLE partners ADD COLUMN IF NOT EXISTS rate_limit_burst INTEGER;
+
+COMMENT ON COLUMN partners.rate_limit_algorithm IS 'FIXED_WINDOW (per-minute counter), SLIDING_WINDOW (weighted two-window counter) or TOKEN_BUCKET';
+COMMENT ON COLUMN partners.rate_limit_burst IS 'TOKEN_BUCKET capacity (NULL = rate_limit_per_minute)';
+
 -- ============================================================================
 -- PARTNER API KEYS TABLE
 -- ============================================================================
@@ -324,6 +372,27 @@ COMMENT ON TABLE partner_daily_usage IS 'Daily API usage tracking for quota enfo
 
 CREATE INDEX idx_partner_usage_partner_date ON partner_daily_usage(partner_id, usage_date DESC);
 
+-- ============================================================================
+-- PARTNER USAGE ROLLUPS (per minute / hour and endpoint, see UsageRollupService)
+-- ============================================================================
+
+CREATE TABLE IF NOT EXISTS partner_usage_rollups (
+    partner_id INTEGER NOT NULL REFERENCES partners(partner_id),
+    granularity VARCHAR(6) NOT NULL CHECK (granularity IN ('MINUTE', 'HOUR')),
+    bucket_start TIMESTAMP NOT NULL,
+    endpoint VARCHAR(255) NOT NULL,
+    request_count BIGINT NOT NULL DEFAULT 0,
+    error_count BIGINT NOT NULL DEFAULT 0,
+    latency_sum_ms BIGINT NOT NULL DEFAULT 0,
+    latency_histogram BIGINT[] NOT NULL,
+    PRIMARY KEY (partner_id, granularity, bucket_start, endpoint)
+);
+
+COMMENT ON TABLE partner_usage_rollups IS 'Pre-aggregated partner API usage for the usage dashboard (replaces scans of partner_api_logs)';
+COMMENT ON COLUMN partner_usage_rollups.latency_histogram IS 'Request counts per latency bucket, upper bounds 1,2,5,10,20,50,100,200,500,1000,2000,5000,10000 ms, then overflow';
+
+CREATE INDEX IF NOT EXISTS idx_partner_rollups_purge ON partner_usage_rollups(granularity, bucket_start);
+
 -- ============================================================================
 -- TRIGGERS FOR updated_at COLUMNS
 -- ============================================================================
@@ -487,7 +556,9 @@ COMMENT ON TABLE transaction_outbox IS 'Outbox table for transaction events (rep
 COMMENT ON COLUMN transaction_outbox.aggregate_id IS 'Account ID for this transaction';
 COMMENT ON COLUMN transaction_outbox.status IS 'PENDING=awaiting publish, PUBLISHED=sent to Kafka, FAILED=error';
 
-CREATE INDEX idx_transaction_outbox_status ON transaction_outbox(status);
+-- Partial indexes: relay claims only touch PENDING rows, retention purge only PUBLISHED
+CREATE INDEX idx_transaction_outbox_pending ON transaction_outbox(id) WHERE status = 'PENDING';
+CREATE INDEX idx_transaction_outbox_published ON transaction_outbox(published_at) WHERE status = 'PUBLISHED';
 CREATE INDEX idx_transaction_outbox_created ON transaction_outbox(created_at);
 
 CREATE TABLE IF NOT EXISTS card_outbox (
@@ -502,7 +573,8 @@ CREATE TABLE IF NOT EXISTS card_outbox (
 );
 
 COMMENT ON TABLE card_outbox IS 'Outbox table for card events';
-CREATE INDEX idx_card_outbox_status ON card_outbox(status);
+CREATE INDEX idx_card_outbox_pending ON card_outbox(id) WHERE status = 'PENDING';
+CREATE INDEX idx_card_outbox_published ON card_outbox(published_at) WHERE status = 'PUBLISHED';
 CREATE INDEX idx_card_outbox_created ON card_outbox(created_at);
 
 CREATE TABLE IF NOT EXISTS account_outbox (
@@ -517,9 +589,35 @@ CREATE TABLE IF NOT EXISTS account_outbox (
 );
 
 COMMENT ON TABLE account_outbox IS 'Outbox table for account events';
-CREATE INDEX idx_account_outbox_status ON account_outbox(status);
+CREATE INDEX idx_account_outbox_pending ON account_outbox(id) WHERE status = 'PENDING';
+CREATE INDEX idx_account_outbox_published ON account_outbox(published_at) WHERE status = 'PUBLISHED';
 CREATE INDEX idx_account_outbox_created ON account_outbox(created_at);
 
+-- Wake the outbox relays on commit (LISTEN <table name>); the relay's poll
+-- timer remains as a fallback if a notification is missed.
+CREATE OR REPLACE FUNCTION notify_outbox_insert()
+RETURNS TRIGGER AS $$
+BEGIN
+    PERFORM pg_notify(TG_TABLE_NAME, '');
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trigger_transaction_outbox_notify
+    AFTER INSERT ON transaction_outbox
+    FOR EACH STATEMENT
+    EXECUTE FUNCTION notify_outbox_insert();
+
+CREATE TRIGGER trigger_card_outbox_notify
+    AFTER INSERT ON card_outbox
+    FOR EACH STATEMENT
+    EXECUTE FUNCTION notify_outbox_insert();
+
+CREATE TRIGGER trigger_account_outbox_notify
+    AFTER INSERT ON account_outbox
+    FOR EACH STATEMENT
+    EXECUTE FUNCTION notify_outbox_insert();
+
 -- ============================================================================
 -- WEBHOOK TABLES (Partner Notification System)
 -- Replaces: CICS Web Services callback patterns
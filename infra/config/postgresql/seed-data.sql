@@ -159,6 +159,19 @@ INSERT INTO transactions (account_id, transaction_type, transaction_category, tr
  NULL, NULL, NULL, CURRENT_DATE - INTERVAL '10 days', '00:01:00')
 ON CONFLICT DO NOTHING;
 
+-- Backfill summary rollups for the sample transactions
+INSERT INTO transaction_summary_rollups (account_id, transaction_type, transaction_category,
+                                         transaction_count, total_amount, abs_total_amount)
+SELECT account_id, transaction_type, COALESCE(transaction_category, ''), COUNT(*), SUM(transaction_amount),
+       SUM(ABS(transaction_amount))
+FROM transactions
+GROUP BY account_id, transaction_type, COALESCE(transaction_category, '')
+ON CONFLICT (account_id, transaction_type, transaction_category) DO UPDATE
+SET transaction_count = EXCLUDED.transaction_count,
+    total_amount = EXCLUDED.total_amount,
+    abs_total_amount = EXCLUDED.abs_total_amount,
+    updated_at = CURRENT_TIMESTAMP;
+
 -- ============================================================================
 -- PARTNERS (for API integration testing)
 -- ============================================================================